@@ -0,0 +1,32 @@
+package demos;
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.jfoenix.svg.SVGGlyphPack;
+
+/**
+ * Command line converter of svg fonts into glyph packs, that can be loaded using
+ * {@link com.jfoenix.svg.SVGGlyphLoader#loadGlyphsPack(java.net.URL, String)}:
+ * <pre>
+ * java demos.SVGGlyphPackConverter font.svg font.glyphs
+ * </pre>
+ */
+public class SVGGlyphPackConverter
+{
+   public static void main(String[] args) throws IOException
+   {
+      if (args.length != 2)
+      {
+         System.err.println("Usage: SVGGlyphPackConverter <svg font> <glyph pack>");
+         System.exit(1);
+      }
+      try (InputStream in = new FileInputStream(args[0]); OutputStream out = new FileOutputStream(args[1]))
+      {
+         SVGGlyphPack.convert(in, out);
+      }
+   }
+}
@@ -81,6 +81,11 @@ public interface CachePolicy<T extends Node>
       }
    };
 
+   /**
+    * image cache with a memory budget, see {@link SnapshotCachePolicy}
+    */
+   CachePolicy<Pane> SNAPSHOT = new SnapshotCachePolicy();
+
    CachePolicy<Pane> IMAGE = new CachePolicy<Pane>()
    {
 
@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.jfoenix.cache;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.CacheHint;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+
+/**
+ * Shared pool of the images used by snapshot based transitions (e.g. {@link com.jfoenix.controls.JFXDialog}
+ * container cache or the month transition of the date picker).
+ * <p>
+ * Images are allocated in size buckets so transitions of similar sizes reuse the same images, they
+ * must be given back using {@link #release(ImageView)} once the transition ends. Snapshot based
+ * transitions can also be disabled, the transitions then animate the live nodes with caching hints.
+ * <p>
+ * <b>Note:</b> the pool must be used from the FX application thread.
+ */
+public final class SnapshotBufferPool
+{
+   /**
+    * default memory budget of the pooled images, in bytes
+    */
+   public static final long DEFAULT_MEMORY_BUDGET = 64L * 1024 * 1024;
+
+   private static final int BUCKET_SIZE = 64;
+
+   private static final SnapshotBufferPool INSTANCE = new SnapshotBufferPool();
+
+   public static SnapshotBufferPool getInstance()
+   {
+      return INSTANCE;
+   }
+
+   private final Map<Long, ArrayDeque<WritableImage>> pool = new HashMap<>();
+   private long memoryBudget = DEFAULT_MEMORY_BUDGET;
+   private long pooledBytes = 0;
+   private boolean snapshotTransitions = true;
+
+   private SnapshotBufferPool()
+   {
+   }
+
+   /**
+    * takes a snapshot of the specified region into a pooled image
+    *
+    * @return image view of the snapshot, sized as the region
+    */
+   public ImageView snapshot(Region region)
+   {
+      final int width = (int) region.getWidth();
+      final int height = (int) region.getHeight();
+      SnapshotParameters snapShotparams = new SnapshotParameters();
+      snapShotparams.setFill(Color.TRANSPARENT);
+      ImageView tempImage = new ImageView();
+      if (width > 0 && height > 0)
+      {
+         // the region is rendered into the top left area of the bucket image
+         tempImage.setImage(region.snapshot(snapShotparams, acquire(width, height)));
+         tempImage.setViewport(new Rectangle2D(0, 0, width, height));
+      }
+      tempImage.setCache(true);
+      tempImage.setCacheHint(CacheHint.SPEED);
+      return tempImage;
+   }
+
+   /**
+    * gives the image of the snapshot view back to the pool
+    */
+   public void release(ImageView snapshot)
+   {
+      final Image image = snapshot.getImage();
+      snapshot.setImage(null);
+      if (image instanceof WritableImage)
+      {
+         release((WritableImage) image);
+      }
+   }
+
+   /**
+    * @return an image of at least the specified size, its size is rounded up to the size bucket
+    */
+   public WritableImage acquire(int width, int height)
+   {
+      final int bucketWidth = bucket(width);
+      final int bucketHeight = bucket(height);
+      final ArrayDeque<WritableImage> images = pool.get(key(bucketWidth, bucketHeight));
+      if (images != null && !images.isEmpty())
+      {
+         pooledBytes -= getBytes(bucketWidth, bucketHeight);
+         return images.pop();
+      }
+      return new WritableImage(bucketWidth, bucketHeight);
+   }
+
+   /**
+    * gives the specified image back to the pool, it's dropped if the pool is full
+    */
+   public void release(WritableImage image)
+   {
+      final int width = (int) image.getWidth();
+      final int height = (int) image.getHeight();
+      final long bytes = getBytes(width, height);
+      if (width != bucket(width) || height != bucket(height) || pooledBytes + bytes > memoryBudget)
+      {
+         return;
+      }
+      pool.computeIfAbsent(key(width, height), key -> new ArrayDeque<>()).push(image);
+      pooledBytes += bytes;
+   }
+
+   /**
+    * release all pooled images
+    */
+   public void clear()
+   {
+      pool.clear();
+      pooledBytes = 0;
+   }
+
+   /**
+    * @return the memory used by the pooled images, in bytes
+    */
+   public long getPooledBytes()
+   {
+      return pooledBytes;
+   }
+
+   public long getMemoryBudget()
+   {
+      return memoryBudget;
+   }
+
+   /**
+    * sets the memory budget of the pooled images, the pool is cleared if it exceeds the new budget
+    *
+    * @param memoryBudget in bytes
+    */
+   public void setMemoryBudget(long memoryBudget)
+   {
+      this.memoryBudget = memoryBudget;
+      if (pooledBytes > memoryBudget)
+      {
+         clear();
+      }
+   }
+
+   public boolean isSnapshotTransitions()
+   {
+      return snapshotTransitions;
+   }
+
+   /**
+    * enable or disable snapshot based transitions, when disabled the transitions animate the live nodes
+    * with caching hints instead of taking snapshots
+    *
+    * @param snapshotTransitions whether the transitions take snapshots
+    */
+   public void setSnapshotTransitions(boolean snapshotTransitions)
+   {
+      this.snapshotTransitions = snapshotTransitions;
+      if (!snapshotTransitions)
+      {
+         clear();
+      }
+   }
+
+   private static int bucket(int size)
+   {
+      return Math.max(BUCKET_SIZE, (size + BUCKET_SIZE - 1) / BUCKET_SIZE * BUCKET_SIZE);
+   }
+
+   private static long key(int width, int height)
+   {
+      return ((long) width << 32) | height;
+   }
+
+   private static long getBytes(int width, int height)
+   {
+      return (long) width * height * 4;
+   }
+}
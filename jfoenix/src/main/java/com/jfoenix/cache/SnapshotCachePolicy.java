@@ -0,0 +1,290 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.jfoenix.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.CacheHint;
+import javafx.scene.Node;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.transform.Scale;
+import javafx.stage.Screen;
+import javafx.stage.Window;
+
+/**
+ * Image cache policy with a memory budget, it replaces the children of the cached pane with a
+ * snapshot of the pane like {@link CachePolicy#IMAGE}.
+ * <p>
+ * Snapshots are rendered at the output scale of the pane window (or the primary screen) so they stay
+ * sharp on HiDPI screens. Images of restored panes are kept in a pool and reused by next snapshots of
+ * a compatible size. Once the memory budget is exceeded pooled images are released first, then the
+ * least recently used panes are restored. Cached panes are weakly referenced, a dropped pane is
+ * released with its snapshot.
+ * <p>
+ * <b>Note:</b> the policy must be used from the FX application thread.
+ */
+public class SnapshotCachePolicy implements CachePolicy<Pane>
+{
+   /**
+    * default memory budget of the snapshots, in bytes
+    */
+   public static final long DEFAULT_MEMORY_BUDGET = 64L * 1024 * 1024;
+
+   // a pooled image is reused if it's at most twice the needed area
+   private static final int MAX_POOL_AREA_RATIO = 2;
+
+   private final WeakHashMap<Pane, Snapshot> cache = new WeakHashMap<>();
+   private final List<WritableImage> pool = new ArrayList<>();
+   private long memoryBudget;
+   private long pooledBytes = 0;
+   // access order of the cached panes
+   private long accessCount = 0;
+   private long hitCount = 0;
+   private long missCount = 0;
+
+   public SnapshotCachePolicy()
+   {
+      this(DEFAULT_MEMORY_BUDGET);
+   }
+
+   /**
+    * @param memoryBudget the memory budget of the snapshots and pooled images, in bytes
+    */
+   public SnapshotCachePolicy(long memoryBudget)
+   {
+      this.memoryBudget = memoryBudget;
+   }
+
+   @Override
+   public void cache(Pane node)
+   {
+      final Snapshot cached = cache.get(node);
+      if (cached != null)
+      {
+         cached.lastAccess = ++accessCount;
+         hitCount++;
+         return;
+      }
+      missCount++;
+      final double width = node.getLayoutBounds().getWidth();
+      final double height = node.getLayoutBounds().getHeight();
+      final double scale = getOutputScale(node);
+      final int pixelWidth = (int) Math.ceil(width * scale);
+      final int pixelHeight = (int) Math.ceil(height * scale);
+      if (pixelWidth <= 0 || pixelHeight <= 0)
+      {
+         return;
+      }
+      final long bytes = getBytes(pixelWidth, pixelHeight);
+      WritableImage image = acquire(pixelWidth, pixelHeight);
+      reserve(image == null ? bytes : 0);
+
+      SnapshotParameters snapShotparams = new SnapshotParameters();
+      snapShotparams.setFill(Color.TRANSPARENT);
+      snapShotparams.setTransform(new Scale(scale, scale));
+      image = node.snapshot(snapShotparams, image == null ? new WritableImage(pixelWidth, pixelHeight) : image);
+
+      ImageView tempImage = new ImageView(image);
+      tempImage.setViewport(new Rectangle2D(0, 0, pixelWidth, pixelHeight));
+      tempImage.setFitWidth(width);
+      tempImage.setFitHeight(height);
+      tempImage.setCache(true);
+      tempImage.setCacheHint(CacheHint.SPEED);
+      cache.put(node, new Snapshot(image, new ArrayList<>(node.getChildren()), ++accessCount));
+      node.getChildren().setAll(tempImage);
+   }
+
+   @Override
+   public void restore(Pane node)
+   {
+      Snapshot snapshot = cache.remove(node);
+      if (snapshot != null)
+      {
+         release(node, snapshot);
+      }
+   }
+
+   /**
+    * restore all cached panes and release the pooled images
+    */
+   public void clear()
+   {
+      for (Map.Entry<Pane, Snapshot> entry : new ArrayList<>(cache.entrySet()))
+      {
+         cache.remove(entry.getKey());
+         entry.getKey().getChildren().setAll(entry.getValue().children);
+      }
+      pool.clear();
+      pooledBytes = 0;
+   }
+
+   public long getMemoryBudget()
+   {
+      return memoryBudget;
+   }
+
+   /**
+    * sets the memory budget of the snapshots and pooled images, panes are restored if needed
+    *
+    * @param memoryBudget in bytes
+    */
+   public void setMemoryBudget(long memoryBudget)
+   {
+      this.memoryBudget = memoryBudget;
+      reserve(0);
+   }
+
+   /**
+    * @return the memory used by the snapshots of the cached panes, in bytes
+    */
+   public long getBytesInUse()
+   {
+      long bytesInUse = 0;
+      for (Snapshot snapshot : cache.values())
+      {
+         bytesInUse += getBytes(snapshot.image);
+      }
+      return bytesInUse;
+   }
+
+   /**
+    * @return the memory used by the pooled images, in bytes
+    */
+   public long getPooledBytes()
+   {
+      return pooledBytes;
+   }
+
+   /**
+    * @return the number of cache requests of already cached panes
+    */
+   public long getHitCount()
+   {
+      return hitCount;
+   }
+
+   /**
+    * @return the number of cache requests that took a snapshot
+    */
+   public long getMissCount()
+   {
+      return missCount;
+   }
+
+   private void release(Pane node, Snapshot snapshot)
+   {
+      node.getChildren().setAll(snapshot.children);
+      final long bytes = getBytes(snapshot.image);
+      if (getBytesInUse() + pooledBytes + bytes <= memoryBudget)
+      {
+         pool.add(snapshot.image);
+         pooledBytes += bytes;
+      }
+   }
+
+   /**
+    * @return the smallest pooled image that can hold the snapshot, or null if there is none
+    */
+   private WritableImage acquire(int pixelWidth, int pixelHeight)
+   {
+      WritableImage best = null;
+      for (WritableImage image : pool)
+      {
+         if (image.getWidth() >= pixelWidth
+             && image.getHeight() >= pixelHeight
+             && getBytes(image) <= MAX_POOL_AREA_RATIO * getBytes(pixelWidth, pixelHeight)
+             && (best == null || getBytes(image) < getBytes(best)))
+         {
+            best = image;
+         }
+      }
+      if (best != null)
+      {
+         pool.remove(best);
+         pooledBytes -= getBytes(best);
+      }
+      return best;
+   }
+
+   /**
+    * release pooled images, then restore the least recently used panes until the specified memory
+    * fits in the budget
+    */
+   private void reserve(long bytes)
+   {
+      long bytesInUse = getBytesInUse();
+      while (bytesInUse + pooledBytes + bytes > memoryBudget && !pool.isEmpty())
+      {
+         pooledBytes -= getBytes(pool.remove(0));
+      }
+      while (bytesInUse + pooledBytes + bytes > memoryBudget && !cache.isEmpty())
+      {
+         Map.Entry<Pane, Snapshot> eldest = null;
+         for (Map.Entry<Pane, Snapshot> entry : cache.entrySet())
+         {
+            if (eldest == null || entry.getValue().lastAccess < eldest.getValue().lastAccess)
+            {
+               eldest = entry;
+            }
+         }
+         cache.remove(eldest.getKey());
+         eldest.getKey().getChildren().setAll(eldest.getValue().children);
+         bytesInUse -= getBytes(eldest.getValue().image);
+      }
+   }
+
+   private static double getOutputScale(Node node)
+   {
+      final Window window = node.getScene() == null ? null : node.getScene().getWindow();
+      return window == null ? Screen.getPrimary().getOutputScaleX() : window.getOutputScaleX();
+   }
+
+   private static long getBytes(WritableImage image)
+   {
+      return getBytes((int) image.getWidth(), (int) image.getHeight());
+   }
+
+   private static long getBytes(int pixelWidth, int pixelHeight)
+   {
+      return (long) pixelWidth * pixelHeight * 4;
+   }
+
+   private static final class Snapshot
+   {
+      private final WritableImage image;
+      private final List<Node> children;
+      private long lastAccess;
+
+      Snapshot(WritableImage image, List<Node> children, long lastAccess)
+      {
+         this.image = image;
+         this.children = children;
+         this.lastAccess = lastAccess;
+      }
+   }
+}
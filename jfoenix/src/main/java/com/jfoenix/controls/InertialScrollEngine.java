@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.jfoenix.controls;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.jfoenix.transitions.JFXAnimationScheduler;
+
+/**
+ * Shared inertial scrolling engine of the smooth scrolled panes, see
+ * {@link JFXScrollPane#smoothScrolling(javafx.scene.control.ScrollPane)}.
+ * <p>
+ * Scroll events add velocity to a {@link Scroller}, the velocity then decays exponentially over
+ * time. All moving scrollers are driven once per pulse by a single {@link JFXAnimationScheduler}
+ * receiver, the displacement of each pulse is computed from the elapsed time so scrolling doesn't
+ * depend on the frame rate. The engine is not pulsed while no scroller is moving.
+ */
+final class InertialScrollEngine implements JFXAnimationScheduler.PulseReceiver
+{
+   /**
+    * velocity added by a scroll event, in pixels per second
+    */
+   private static final double IMPULSE = 470;
+   /**
+    * time constant of the velocity decay, in seconds
+    */
+   private static final double DECAY = 0.3;
+   /**
+    * scrollers slower than this velocity are stopped, in pixels per second
+    */
+   private static final double MIN_VELOCITY = 1;
+   private static final double DEFAULT_FRAME = 1 / 60.0;
+   private static final double MAX_FRAME = 0.1;
+
+   static final InertialScrollEngine INSTANCE = new InertialScrollEngine();
+
+   private final List<Scroller> moving = new ArrayList<>();
+
+   private InertialScrollEngine()
+   {
+   }
+
+   /**
+    * add the velocity of a scroll event to the specified scroller
+    *
+    * @param direction 1 to scroll forward, -1 to scroll backward
+    */
+   void push(Scroller scroller, int direction)
+   {
+      scroller.velocity += direction * IMPULSE;
+      if (!scroller.moving)
+      {
+         scroller.moving = true;
+         scroller.lastPulse = -1;
+         moving.add(scroller);
+         JFXAnimationScheduler.getInstance().register(this, JFXAnimationScheduler.Priority.HIGH);
+      }
+   }
+
+   void stop(Scroller scroller)
+   {
+      scroller.velocity = 0;
+      if (scroller.moving)
+      {
+         scroller.moving = false;
+         moving.remove(scroller);
+         if (moving.isEmpty())
+         {
+            JFXAnimationScheduler.getInstance().unregister(this);
+         }
+      }
+   }
+
+   @Override
+   public void handle(long now)
+   {
+      for (int i = moving.size() - 1; i >= 0; i--)
+      {
+         final Scroller scroller = moving.get(i);
+         final double elapsed = scroller.lastPulse < 0 ? DEFAULT_FRAME : Math.min((now - scroller.lastPulse) / 1e9, MAX_FRAME);
+         scroller.lastPulse = now;
+         // integral of the decaying velocity over the elapsed time
+         final double decay = Math.exp(-elapsed / DECAY);
+         final double delta = scroller.velocity * DECAY * (1 - decay);
+         scroller.velocity *= decay;
+         final boolean scrolled = scroller.scrollPixels(delta);
+         if (!scrolled || Math.abs(scroller.velocity) < MIN_VELOCITY)
+         {
+            scroller.velocity = 0;
+            scroller.moving = false;
+            moving.remove(i);
+         }
+      }
+      if (moving.isEmpty())
+      {
+         JFXAnimationScheduler.getInstance().unregister(this);
+      }
+   }
+
+   /**
+    * scrolled target of the engine
+    */
+   abstract static class Scroller
+   {
+      private double velocity = 0;
+      private long lastPulse = -1;
+      private boolean moving = false;
+
+      /**
+       * @param delta the scroll displacement in pixels
+       * @return false if the target can't be scrolled any further in this direction
+       */
+      abstract boolean scrollPixels(double delta);
+   }
+}
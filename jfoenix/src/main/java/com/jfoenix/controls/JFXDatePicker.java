@@ -30,9 +30,11 @@ import com.jfoenix.controls.base.IFXValidatableControl;
 import com.jfoenix.skins.JFXDatePickerSkin;
 import com.jfoenix.validation.base.ValidatorBase;
 
+import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.ObservableList;
 import javafx.css.CssMetaData;
@@ -137,6 +139,50 @@ public class JFXDatePicker extends DatePicker implements IFXValidatableControl
       this.dialogParentProperty().set(dialogParent);
    }
 
+   /**
+    * the first year shown in the years list of the data picker content, the list is extended to
+    * include the selected year if it's out of the range
+    * <p>
+    * <b>Note:</b> the years are computed on demand, however the list view still keeps a size estimate
+    * per item, so the range should be kept within a few thousand years
+    */
+   private IntegerProperty minYear = new SimpleIntegerProperty(this, "minYear", 1900);
+
+   public final IntegerProperty minYearProperty()
+   {
+      return this.minYear;
+   }
+
+   public final int getMinYear()
+   {
+      return this.minYearProperty().get();
+   }
+
+   public final void setMinYear(final int minYear)
+   {
+      this.minYearProperty().set(minYear);
+   }
+
+   /**
+    * the last year shown in the years list of the data picker content, see {@link #minYearProperty()}
+    */
+   private IntegerProperty maxYear = new SimpleIntegerProperty(this, "maxYear", 2100);
+
+   public final IntegerProperty maxYearProperty()
+   {
+      return this.maxYear;
+   }
+
+   public final int getMaxYear()
+   {
+      return this.maxYearProperty().get();
+   }
+
+   public final void setMaxYear(final int maxYear)
+   {
+      this.maxYearProperty().set(maxYear);
+   }
+
    private ValidationControl validationControl = new ValidationControl(this);
 
    @Override
@@ -23,9 +23,11 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import com.jfoenix.cache.SnapshotBufferPool;
 import com.jfoenix.controls.events.JFXDialogEvent;
 import com.jfoenix.converters.DialogTransitionConverter;
 import com.jfoenix.effects.JFXDepthManager;
+import com.jfoenix.transitions.CacheMemento;
 import com.jfoenix.transitions.CachedTransition;
 
 import javafx.animation.Interpolator;
@@ -46,11 +48,8 @@ import javafx.css.StyleableProperty;
 import javafx.event.Event;
 import javafx.event.EventHandler;
 import javafx.geometry.Pos;
-import javafx.scene.CacheHint;
 import javafx.scene.Node;
-import javafx.scene.SnapshotParameters;
 import javafx.scene.image.ImageView;
-import javafx.scene.image.WritableImage;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.Background;
 import javafx.scene.layout.BackgroundFill;
@@ -301,6 +300,8 @@ public class JFXDialog extends StackPane
    }
 
    private ArrayList<Node> tempContent;
+   private ImageView tempImage;
+   private List<CacheMemento> tempContentCache;
 
    /**
     * show the dialog inside its parent container
@@ -321,13 +322,27 @@ public class JFXDialog extends StackPane
       {
          tempContent = new ArrayList<>(dialogContainer.getChildren());
 
-         SnapshotParameters snapShotparams = new SnapshotParameters();
-         snapShotparams.setFill(Color.TRANSPARENT);
-         WritableImage temp = dialogContainer.snapshot(snapShotparams, new WritableImage((int) dialogContainer.getWidth(), (int) dialogContainer.getHeight()));
-         ImageView tempImage = new ImageView(temp);
-         tempImage.setCache(true);
-         tempImage.setCacheHint(CacheHint.SPEED);
-         dialogContainer.getChildren().setAll(tempImage, this);
+         if (SnapshotBufferPool.getInstance().isSnapshotTransitions())
+         {
+            tempImage = SnapshotBufferPool.getInstance().snapshot(dialogContainer);
+            dialogContainer.getChildren().setAll(tempImage, this);
+         }
+         else
+         {
+            // cache the live content instead of taking a snapshot
+            tempContentCache = new ArrayList<>(tempContent.size());
+            for (Node node : tempContent)
+            {
+               if (node != this)
+               {
+                  CacheMemento cacheMemento = new CacheMemento(node);
+                  cacheMemento.cache();
+                  tempContentCache.add(cacheMemento);
+               }
+            }
+            dialogContainer.getChildren().remove(this);
+            dialogContainer.getChildren().add(this);
+         }
       }
       else
       {
@@ -384,6 +399,16 @@ public class JFXDialog extends StackPane
       {
          dialogContainer.getChildren().setAll(tempContent);
       }
+      if (tempImage != null)
+      {
+         SnapshotBufferPool.getInstance().release(tempImage);
+         tempImage = null;
+      }
+      if (tempContentCache != null)
+      {
+         tempContentCache.forEach(CacheMemento::restore);
+         tempContentCache = null;
+      }
    }
 
    /***************************************************************************
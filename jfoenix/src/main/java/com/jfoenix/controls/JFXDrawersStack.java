@@ -23,6 +23,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.jfoenix.cache.CachePolicy;
+import com.jfoenix.cache.SnapshotCachePolicy;
 import com.jfoenix.utils.JFXNodeUtils;
 
 import javafx.beans.DefaultProperty;
@@ -137,7 +138,7 @@ public class JFXDrawersStack extends Region
          return;
       }
 
-      if (drawer.getCachePolicy().equals(CachePolicy.IMAGE))
+      if (drawer.getCachePolicy().equals(CachePolicy.IMAGE) || drawer.getCachePolicy() instanceof SnapshotCachePolicy)
       {
          throw new RuntimeException("Drawer is using unsupported cache strategy inside JFXDrawerStack");
       }
@@ -67,6 +67,11 @@ public class JFXListCell<T> extends ListCell<T>
 
    protected JFXRippler cellRippler = new JFXRippler(this)
    {
+      {
+         // cells are reused, so their ripple nodes are created upfront
+         createRippleUI();
+      }
+
       @Override
       protected Node getMask()
       {
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.jfoenix.controls;
+
+import javafx.scene.Node;
+import javafx.scene.control.IndexedCell;
+
+/**
+ * JFXMasonryCell is the cell used by {@link JFXVirtualMasonryPane} to display an item, the size of the
+ * cell defines the grid area of its item. By default the item is displayed as the cell graphic if
+ * it's a node, otherwise its string value is displayed as the cell text.
+ */
+public class JFXMasonryCell<T> extends IndexedCell<T>
+{
+
+   public JFXMasonryCell()
+   {
+      initialize();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   protected void updateItem(T item, boolean empty)
+   {
+      super.updateItem(item, empty);
+      if (empty || item == null)
+      {
+         setText(null);
+         setGraphic(null);
+      }
+      else if (item instanceof Node)
+      {
+         setText(null);
+         setGraphic((Node) item);
+      }
+      else
+      {
+         setText(item.toString());
+         setGraphic(null);
+      }
+   }
+
+   void updateCell(int index, T item, boolean empty)
+   {
+      updateIndex(index);
+      updateItem(item, empty);
+   }
+
+   /***************************************************************************
+    * * Stylesheet Handling * *
+    **************************************************************************/
+
+   /**
+    * Initialize the style class to 'jfx-masonry-cell'.
+    * <p>
+    * This is the selector class from which CSS can be used to style this control.
+    */
+   private static final String DEFAULT_STYLE_CLASS = "jfx-masonry-cell";
+
+   private void initialize()
+   {
+      this.getStyleClass().add(DEFAULT_STYLE_CLASS);
+   }
+}
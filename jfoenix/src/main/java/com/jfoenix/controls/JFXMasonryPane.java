@@ -20,11 +20,14 @@
 package com.jfoenix.controls;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 
 import com.jfoenix.transitions.CachedTransition;
 
+import javafx.animation.Animation;
 import javafx.animation.Interpolator;
 import javafx.animation.KeyFrame;
 import javafx.animation.KeyValue;
@@ -51,7 +54,9 @@ import javafx.util.Duration;
  * one of the modes:
  * <p>
  * <h3>Masonry Layout</h3> Nodes will be added one after another, first in the horizontal direction
- * , then vertically. sort of like a mason fitting stones in a wall.
+ * , then vertically. sort of like a mason fitting stones in a wall. Each block is placed below the
+ * blocks of all the columns it spans, so the gaps left below a block that is higher than its
+ * neighbours are never filled.
  * <p>
  * <h3>Bin Packing Layout(First Fit)</h3> it works similar to masonry layoutMode, however it tries
  * to fill the empty gaps caused in masonry layoutMode. <b>Note:</b> children that doesn't fit in
@@ -72,24 +77,41 @@ public class JFXMasonryPane extends Pane
    private HashMap<Node, BoundingBox> boundingBoxes = new HashMap<>();
    private boolean dirtyBoxes = false;
 
+   // occupancy state of the grid, children are placed incrementally while it's valid
+   private LayoutMode.Placement placement;
+   private LayoutMode placementMode;
+   private int placementColumns = -1;
+   // index of the first child in getChildren() that is not placed yet
+   private int placedIndex = 0;
+   private double contentHeight = -1;
+
    private final ListChangeListener<Node> childrenListener = change ->
    {
-      if (change.next())
+      boolean appended = true;
+      while (change.next())
       {
-         // flag dirty boxes
-         dirtyBoxes = true;
-
+         if (change.wasPermutated() || change.wasRemoved() || change.getTo() != change.getList().size())
+         {
+            appended = false;
+         }
          // clean removed child nodes from animationMap
          // fixed #1003 JFXMasonryPane nullpointer when init before layout. 
-         if (animationMap != null)
+         for (Node removedNode : change.getRemoved())
          {
-            for (Node removedNode : change.getRemoved())
+            boundingBoxes.remove(removedNode);
+            if (animationMap != null)
             {
                animationMap.remove(removedNode);
             }
          }
       }
-      clearLayout();
+      // appended children are placed after the current ones, otherwise the whole layout is recomputed
+      if (!appended || placement == null)
+      {
+         // flag dirty boxes
+         dirtyBoxes = true;
+         clearLayout();
+      }
       requestLayout();
    };
 
@@ -116,10 +138,14 @@ public class JFXMasonryPane extends Pane
       performingLayout = true;
 
       int col, row;
-      col = (int) Math.floor((getWidth() + getHSpacing() - snappedLeftInset() - snappedRightInset()) / (getCellWidth() + getHSpacing()));
-      col = getLimitColumn() != -1 && col > getLimitColumn() ? getLimitColumn() : col;
+      col = computeColumns();
 
-      if (matrix != null && col == matrix[0].length)
+      final LayoutMode mode = layoutMode.get();
+      if (placementMode != mode || placementColumns != col)
+      {
+         clearLayout();
+      }
+      if (matrix != null || placement != null && placedIndex == getChildren().size())
       {
          performingLayout = false;
          return;
@@ -127,25 +153,51 @@ public class JFXMasonryPane extends Pane
       //(int) Math.floor(this.getHeight() / (cellH + 2*vSpacing));
       row = getLimitRow();
 
-      matrix = new int[row][col];
-      double minWidth = -1;
-      double minHeight = -1;
+      final boolean appending = placement != null;
+      if (!appending)
+      {
+         placement = mode.createPlacement(row == -1 ? Integer.MAX_VALUE : row, col);
+         placementMode = mode;
+         placementColumns = col;
+      }
 
+      List<Region> managedChildren;
       List<BoundingBox> newBoxes;
-      List<Region> managedChildren = getManagedChildren();
-
-      // filter Region nodes
-      for (int i = 0; i < managedChildren.size(); i++)
+      if (placement != null)
       {
-         if (!(managedChildren.get(i) instanceof Region))
+         // only place the children that are not placed yet
+         managedChildren = new ArrayList<>();
+         newBoxes = new ArrayList<>();
+         final List<Node> children = getChildren();
+         for (int i = placedIndex; i < children.size(); i++)
          {
-            managedChildren.remove(i);
-            i--;
+            final Node child = children.get(i);
+            if (child.isManaged() && child instanceof Region)
+            {
+               managedChildren.add((Region) child);
+               newBoxes.add(placement.place((Region) child, getCellWidth(), getCellHeight(), getHSpacing(), getVSpacing()));
+            }
          }
+         placedIndex = children.size();
       }
+      else
+      {
+         matrix = new int[row][col];
+         managedChildren = getManagedChildren();
 
-      // get bounding boxes layout
-      newBoxes = layoutMode.get().fillGrid(matrix, managedChildren, getCellWidth(), getCellHeight(), row, col, getHSpacing(), getVSpacing());
+         // filter Region nodes
+         for (int i = 0; i < managedChildren.size(); i++)
+         {
+            if (!(managedChildren.get(i) instanceof Region))
+            {
+               managedChildren.remove(i);
+               i--;
+            }
+         }
+
+         // get bounding boxes layout
+         newBoxes = mode.fillGrid(matrix, managedChildren, getCellWidth(), getCellHeight(), row, col, getHSpacing(), getVSpacing());
+      }
 
       if (newBoxes == null)
       {
@@ -158,7 +210,12 @@ public class JFXMasonryPane extends Pane
       {
          boundingBoxes = new HashMap<>();
       }
+      if (!appending)
+      {
+         contentHeight = -1;
+      }
 
+      List<Animation> animations = new ArrayList<>();
       for (int i = 0; i < managedChildren.size() && i < newBoxes.size(); i++)
       {
          final Region child = managedChildren.get(i);
@@ -250,28 +307,21 @@ public class JFXMasonryPane extends Pane
                      }
                   });
                }
+               animations.add(animationMap.get(child));
             }
 
             // update bounding box
             boundingBoxes.put(child, boundingBox);
 
-            if (boundingBox != null)
+            if (boundingBox != null && blockY + blockHeight > contentHeight)
             {
-               if (blockX + blockWidth > minWidth)
-               {
-                  minWidth = blockX + blockWidth;
-               }
-               if (blockY + blockHeight > minHeight)
-               {
-                  minHeight = blockY + blockHeight;
-               }
+               contentHeight = blockY + blockHeight;
             }
          }
       }
-      if (minHeight != -1)
+      if (contentHeight != -1)
       {
-         minHeight += snappedBottomInset();
-         setPrefHeight(minHeight);
+         setPrefHeight(contentHeight + snappedBottomInset());
       }
 
       if (animationMap == null)
@@ -279,15 +329,32 @@ public class JFXMasonryPane extends Pane
          animationMap = new HashMap<>();
       }
 
+      final boolean running = trans.getStatus() == Animation.Status.RUNNING;
       trans.stop();
       ParallelTransition newTransition = new ParallelTransition();
-      newTransition.getChildren().addAll(animationMap.values());
+      if (appending && running)
+      {
+         // keep animating the children placed by the previous pass
+         List<Animation> previous = new ArrayList<>(trans.getChildren());
+         trans.getChildren().clear();
+         newTransition.getChildren().addAll(previous);
+      }
+      newTransition.getChildren().addAll(animations);
       newTransition.play();
       trans = newTransition;
       dirtyBoxes = false;
       performingLayout = false;
    }
 
+   /**
+    * @return the number of grid columns that fit in the pane width
+    */
+   protected final int computeColumns()
+   {
+      int col = (int) Math.floor((getWidth() + getHSpacing() - snappedLeftInset() - snappedRightInset()) / (getCellWidth() + getHSpacing()));
+      return getLimitColumn() != -1 && col > getLimitColumn() ? getLimitColumn() : col;
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -308,6 +375,10 @@ public class JFXMasonryPane extends Pane
    public final void clearLayout()
    {
       matrix = null;
+      placement = null;
+      placementMode = null;
+      placementColumns = -1;
+      placedIndex = 0;
    }
 
    /***************************************************************************
@@ -571,6 +642,102 @@ public class JFXMasonryPane extends Pane
                                                     double gutterX,
                                                     double gutterY);
 
+      /**
+       * creates the occupancy state used to place the children one after another, the pane keeps it
+       * between layout passes so appended children are placed without placing the others again.
+       *
+       * @param limitRow number of rows in the grid, {@link Integer#MAX_VALUE} if the rows are not limited
+       * @param limitCol number of columns in the grid
+       * @return the placement state, or null if the layout mode only supports {@link #fillGrid}
+       */
+      protected Placement createPlacement(int limitRow, int limitCol)
+      {
+         return null;
+      }
+
+      /**
+       * Occupancy state of the grid, blocks are placed in the order they are added
+       */
+      protected abstract class Placement
+      {
+         protected final int limitRow;
+         protected final int limitCol;
+
+         protected Placement(int limitRow, int limitCol)
+         {
+            this.limitRow = limitRow;
+            this.limitCol = limitCol;
+         }
+
+         /**
+          * reserves the grid area of the specified block
+          *
+          * @return the box (row, column, columns, rows) of the block, or null if it doesn't fit in the
+          *       grid
+          */
+         protected abstract BoundingBox place(Region block, double cellWidth, double cellHeight, double gutterX, double gutterY);
+      }
+
+      /**
+       * @return the number of grid rows needed to hold the block
+       */
+      protected int getRowSpan(Region block, double cellHeight, double gutterY)
+      {
+         double blockHeight = getBLockHeight(block);
+         int rowsNeeded = (int) Math.ceil(blockHeight / (cellHeight + gutterY));
+         if (cellHeight * rowsNeeded + (rowsNeeded - 1) * 2 * gutterY < blockHeight)
+         {
+            rowsNeeded++;
+         }
+         return rowsNeeded;
+      }
+
+      /**
+       * @return the number of grid columns needed to hold the block
+       */
+      protected int getColumnSpan(Region block, double cellWidth, double gutterX)
+      {
+         double blockWidth = getBLockWidth(block);
+         int colsNeeded = (int) Math.ceil(blockWidth / (cellWidth + gutterX));
+         if (cellWidth * colsNeeded + (colsNeeded - 1) * 2 * gutterX < blockWidth)
+         {
+            colsNeeded++;
+         }
+         return colsNeeded;
+      }
+
+      /**
+       * @return the smallest number of columns, up to the column span, accepted by
+       *       {@link #validWidth}, or -1 if none is accepted
+       */
+      protected int getMinColumnSpan(Region block, int colSpan, double cellWidth, double gutterX, double gutterY)
+      {
+         for (int width = 1; width <= colSpan; width++)
+         {
+            if (validWidth(new BoundingBox(0, 0, width, 1), block, cellWidth, gutterX, gutterY))
+            {
+               return width;
+            }
+         }
+         return -1;
+      }
+
+      /**
+       * @return the smallest number of rows, up to the row span, accepted by {@link #validHeight}, or
+       *       -1 if none is accepted
+       */
+      protected int getMinRowSpan(Region block, int rowSpan, double cellHeight, double gutterX, double gutterY)
+      {
+         for (int height = 1; height <= rowSpan; height++)
+         {
+            if (validHeight(new BoundingBox(0, 0, 1, height), block, cellHeight, gutterX, gutterY))
+            {
+               return height;
+            }
+         }
+         return -1;
+      }
+
       /**
        * returns the available box at the cell (x,y) of the grid that fits the block if existed
        *
@@ -590,22 +757,8 @@ public class JFXMasonryPane extends Pane
                                         double gutterX,
                                         double gutterY)
       {
-         double blockHeight = getBLockHeight(block);
-         double blockWidth = getBLockWidth(block);
-
-         int rowsNeeded = (int) Math.ceil(blockHeight / (cellHeight + gutterY));
-         if (cellHeight * rowsNeeded + (rowsNeeded - 1) * 2 * gutterY < blockHeight)
-         {
-            rowsNeeded++;
-         }
-         int maxRow = Math.min(x + rowsNeeded, limitRow);
-
-         int colsNeeded = (int) Math.ceil(blockWidth / (cellWidth + gutterX));
-         if (cellWidth * colsNeeded + (colsNeeded - 1) * 2 * gutterX < blockWidth)
-         {
-            colsNeeded++;
-         }
-         int maxCol = Math.min(y + colsNeeded, limitCol);
+         int maxRow = Math.min(x + getRowSpan(block, cellHeight, gutterY), limitRow);
+         int maxCol = Math.min(y + getColumnSpan(block, cellWidth, gutterX), limitCol);
 
          int minRow = maxRow;
          int minCol = maxCol;
@@ -729,6 +882,71 @@ public class JFXMasonryPane extends Pane
 
    private static class MasonryLayout extends LayoutMode
    {
+      @Override
+      protected Placement createPlacement(int limitRow, int limitCol)
+      {
+         return new SkylinePlacement(limitRow, limitCol);
+      }
+
+      /**
+       * keeps the height of each column, a block is placed at the top most row where all of its
+       * columns are free below the blocks placed before it.
+       * <p>
+       * Unlike the matrix scan of {@link #fillGrid}, which could widen a block over free cells left
+       * below a block of a neighbour column, free cells below the column heights are never used, so
+       * blocks spanning several columns may be placed lower than they used to.
+       */
+      private final class SkylinePlacement extends Placement
+      {
+         private final int[] heights;
+
+         SkylinePlacement(int limitRow, int limitCol)
+         {
+            super(limitRow, limitCol);
+            heights = new int[limitCol];
+         }
+
+         @Override
+         protected BoundingBox place(Region block, double cellWidth, double cellHeight, double gutterX, double gutterY)
+         {
+            final int colSpan = getColumnSpan(block, cellWidth, gutterX);
+            final int rowSpan = getRowSpan(block, cellHeight, gutterY);
+            final int minWidth = getMinColumnSpan(block, colSpan, cellWidth, gutterX, gutterY);
+            final int minHeight = getMinRowSpan(block, rowSpan, cellHeight, gutterX, gutterY);
+            if (minWidth == -1 || minHeight == -1)
+            {
+               return null;
+            }
+            int row = -1;
+            int col = -1;
+            for (int j = 0; j + minWidth <= limitCol; j++)
+            {
+               int top = 0;
+               for (int k = j; k < j + minWidth; k++)
+               {
+                  top = Math.max(top, heights[k]);
+               }
+               if (top <= limitRow - minHeight && (row == -1 || top < row))
+               {
+                  row = top;
+                  col = j;
+               }
+            }
+            if (row == -1)
+            {
+               return null;
+            }
+            int width = minWidth;
+            while (width < colSpan && col + width < limitCol && heights[col + width] <= row)
+            {
+               width++;
+            }
+            final int height = Math.min(rowSpan, limitRow - row);
+            Arrays.fill(heights, col, col + width, row + height);
+            return new BoundingBox(row, col, width, height);
+         }
+      }
+
       @Override
       public List<BoundingBox> fillGrid(int[][] matrix,
                                         List<Region> children,
@@ -803,6 +1021,123 @@ public class JFXMasonryPane extends Pane
     **************************************************************************/
    private static class BinPackingLayout extends LayoutMode
    {
+      @Override
+      protected Placement createPlacement(int limitRow, int limitCol)
+      {
+         return new FreeAreaPlacement(limitRow, limitCol);
+      }
+
+      /**
+       * keeps the maximal free rectangles of the grid as {top, left, bottom, right}, a block is placed
+       * at the top left most free rectangle that can hold it
+       */
+      private final class FreeAreaPlacement extends Placement
+      {
+         private final List<int[]> freeAreas = new ArrayList<>();
+
+         FreeAreaPlacement(int limitRow, int limitCol)
+         {
+            super(limitRow, limitCol);
+            freeAreas.add(new int[] {0, 0, limitRow, limitCol});
+         }
+
+         @Override
+         protected BoundingBox place(Region block, double cellWidth, double cellHeight, double gutterX, double gutterY)
+         {
+            final int colSpan = getColumnSpan(block, cellWidth, gutterX);
+            final int rowSpan = getRowSpan(block, cellHeight, gutterY);
+            final int minWidth = getMinColumnSpan(block, colSpan, cellWidth, gutterX, gutterY);
+            final int minHeight = getMinRowSpan(block, rowSpan, cellHeight, gutterX, gutterY);
+            if (minWidth == -1 || minHeight == -1)
+            {
+               return null;
+            }
+            int[] target = null;
+            long targetArea = 0;
+            for (int[] area : freeAreas)
+            {
+               if (area[2] - area[0] < minHeight || area[3] - area[1] < minWidth)
+               {
+                  continue;
+               }
+               final long size = (long) Math.min(rowSpan, area[2] - area[0]) * Math.min(colSpan, area[3] - area[1]);
+               if (target == null || area[0] < target[0] || area[0] == target[0] && (area[1] < target[1] || area[1] == target[1] && size > targetArea))
+               {
+                  target = area;
+                  targetArea = size;
+               }
+            }
+            if (target == null)
+            {
+               return null;
+            }
+            final int row = target[0];
+            final int col = target[1];
+            final int width = Math.min(colSpan, target[3] - col);
+            final int height = Math.min(rowSpan, target[2] - row);
+            occupy(row, col, row + height, col + width);
+            return new BoundingBox(row, col, width, height);
+         }
+
+         private void occupy(int top, int left, int bottom, int right)
+         {
+            final List<int[]> splits = new ArrayList<>();
+            for (Iterator<int[]> iterator = freeAreas.iterator(); iterator.hasNext(); )
+            {
+               final int[] area = iterator.next();
+               if (top >= area[2] || bottom <= area[0] || left >= area[3] || right <= area[1])
+               {
+                  continue;
+               }
+               iterator.remove();
+               if (top > area[0])
+               {
+                  splits.add(new int[] {area[0], area[1], top, area[3]});
+               }
+               if (bottom < area[2])
+               {
+                  splits.add(new int[] {bottom, area[1], area[2], area[3]});
+               }
+               if (left > area[1])
+               {
+                  splits.add(new int[] {area[0], area[1], area[2], left});
+               }
+               if (right < area[3])
+               {
+                  splits.add(new int[] {area[0], right, area[2], area[3]});
+               }
+            }
+            // only keep the maximal areas
+            for (int i = 0; i < splits.size(); i++)
+            {
+               final int[] split = splits.get(i);
+               boolean contained = false;
+               for (int[] area : freeAreas)
+               {
+                  if (contains(area, split))
+                  {
+                     contained = true;
+                     break;
+                  }
+               }
+               for (int j = 0; j < splits.size() && !contained; j++)
+               {
+                  // identical splits are only kept once
+                  contained = j != i && contains(splits.get(j), split) && (j < i || !contains(split, splits.get(j)));
+               }
+               if (!contained)
+               {
+                  freeAreas.add(split);
+               }
+            }
+         }
+
+         private boolean contains(int[] area, int[] other)
+         {
+            return area[0] <= other[0] && area[1] <= other[1] && area[2] >= other[2] && area[3] >= other[3];
+         }
+      }
+
       @Override
       public List<BoundingBox> fillGrid(int[][] matrix,
                                         List<Region> children,
@@ -0,0 +1,476 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.jfoenix.controls;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.jfoenix.controls.JFXRippler.RipplerMask;
+import com.jfoenix.transitions.JFXAnimationScheduler;
+
+import javafx.animation.Interpolator;
+import javafx.beans.InvalidationListener;
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.BackgroundFill;
+import javafx.scene.layout.CornerRadii;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Paint;
+import javafx.scene.transform.Affine;
+import javafx.scene.transform.NonInvertibleTransformException;
+
+/**
+ * JFXRippleOverlay is a lightweight ripple renderer. All ripples of a window are drawn by a single
+ * {@link Canvas} that is driven by the {@link JFXAnimationScheduler} while ripples are animating, so
+ * {@link JFXRippler} doesn't create any ripple, overlay or clip node.
+ * <p>
+ * The rendering mode is opt-in: add a JFXRippleOverlay as the last child of the window root, it
+ * resizes itself to its parent and is used by all ripplers of its scene. Ripples are clipped to the
+ * mask geometry of their control, {@link RipplerMask#FIT} uses the control background radii.
+ * <p>
+ * The overlay is painted above the scene content, so ripplers positioned behind their control
+ * ({@link JFXRippler.RipplerPos#BACK}) keep drawing their ripples with ripple nodes.
+ */
+public class JFXRippleOverlay extends Canvas
+{
+
+   private static final String DEFAULT_STYLE_CLASS = "jfx-ripple-overlay";
+
+   private static final double RIPPLE_IN_DURATION = 900;
+   private static final double RIPPLE_OUT_DURATION = 800;
+   private static final double HIGHLIGHT_DURATION = 300;
+   private static final Interpolator RIPPLE_INTERPOLATOR = Interpolator.SPLINE(0.0825, 0.3025, 0.0875, 0.9975);
+
+   /**
+    * @param scene of the ripplers
+    * @return the ripple overlay installed in the specified scene, or null if there is none
+    */
+   public static JFXRippleOverlay getOverlay(Scene scene)
+   {
+      return scene == null ? null : (JFXRippleOverlay) scene.getProperties().get(JFXRippleOverlay.class);
+   }
+
+   private final List<OverlayRipple> ripples = new ArrayList<>();
+   private final List<OverlayHighlight> highlights = new ArrayList<>();
+   private final Affine transform = new Affine();
+   private final JFXAnimationScheduler.PulseReceiver pulseReceiver = this::pulse;
+   private final InvalidationListener parentBoundsListener = observable -> resizeToParent();
+   private boolean painted = false;
+
+   public JFXRippleOverlay()
+   {
+      getStyleClass().add(DEFAULT_STYLE_CLASS);
+      setMouseTransparent(true);
+      setManaged(false);
+      setFocusTraversable(false);
+
+      sceneProperty().addListener((o, oldVal, newVal) ->
+      {
+         if (oldVal != null && oldVal.getProperties().get(JFXRippleOverlay.class) == this)
+         {
+            oldVal.getProperties().remove(JFXRippleOverlay.class);
+         }
+         if (newVal != null)
+         {
+            newVal.getProperties().put(JFXRippleOverlay.class, this);
+         }
+         else
+         {
+            ripples.clear();
+            highlights.clear();
+            update();
+         }
+      });
+      parentProperty().addListener((o, oldVal, newVal) ->
+      {
+         if (oldVal != null)
+         {
+            oldVal.layoutBoundsProperty().removeListener(parentBoundsListener);
+         }
+         if (newVal != null)
+         {
+            newVal.layoutBoundsProperty().addListener(parentBoundsListener);
+         }
+         resizeToParent();
+      });
+   }
+
+   private void resizeToParent()
+   {
+      final Parent parent = getParent();
+      if (parent != null)
+      {
+         final Bounds bounds = parent.getLayoutBounds();
+         relocate(bounds.getMinX(), bounds.getMinY());
+         setWidth(bounds.getWidth());
+         setHeight(bounds.getHeight());
+      }
+   }
+
+   /**
+    * starts a ripple on the specified control
+    *
+    * @param control  the rippled control
+    * @param x        the ripple center in the control coordinates
+    * @param y        the ripple center in the control coordinates
+    * @param radius   the ripple radius
+    * @param fill     the ripple fill
+    * @param mask     the mask used to clip the ripple
+    * @param recenter whether the ripple is pulled to the control center
+    * @return a runnable to release the ripple
+    */
+   public Runnable ripple(Node control, double x, double y, double radius, Paint fill, RipplerMask mask, boolean recenter)
+   {
+      final OverlayRipple ripple = new OverlayRipple(control, x, y, radius, fill, mask);
+      if (recenter)
+      {
+         double dx = (control.getLayoutBounds().getWidth() / 2 - x) / 1.55;
+         double dy = (control.getLayoutBounds().getHeight() / 2 - y) / 1.55;
+         ripple.recenterX = Math.signum(dx) * Math.min(Math.abs(dx), radius / 2);
+         ripple.recenterY = Math.signum(dy) * Math.min(Math.abs(dy), radius / 2);
+      }
+      ripples.add(ripple);
+      update();
+      return ripple::release;
+   }
+
+   /**
+    * shows/hides the highlight overlay of the specified control
+    *
+    * @param control the highlighted control
+    * @param fill    the highlight fill
+    * @param mask    the mask used to clip the highlight
+    * @param visible whether the highlight is visible
+    */
+   public void setHighlightVisible(Node control, Paint fill, RipplerMask mask, boolean visible)
+   {
+      OverlayHighlight highlight = null;
+      for (OverlayHighlight current : highlights)
+      {
+         if (current.control == control)
+         {
+            highlight = current;
+            break;
+         }
+      }
+      if (highlight == null)
+      {
+         if (!visible)
+         {
+            return;
+         }
+         highlight = new OverlayHighlight(control);
+         control.localToSceneTransformProperty().addListener(highlight.repaintListener);
+         control.layoutBoundsProperty().addListener(highlight.repaintListener);
+         highlights.add(highlight);
+      }
+      highlight.fill = fill;
+      highlight.mask = mask;
+      highlight.setVisible(visible);
+      update();
+   }
+
+   private void update()
+   {
+      final JFXAnimationScheduler scheduler = JFXAnimationScheduler.getInstance();
+      if (ripples.isEmpty() && highlights.isEmpty())
+      {
+         scheduler.unregister(pulseReceiver);
+         clear();
+      }
+      else if (getScene() != null)
+      {
+         scheduler.register(pulseReceiver);
+      }
+   }
+
+   private void clear()
+   {
+      if (painted)
+      {
+         getGraphicsContext2D().clearRect(0, 0, getWidth(), getHeight());
+         painted = false;
+      }
+   }
+
+   private void pulse(long now)
+   {
+      final double time = now / 1_000_000.0;
+      clear();
+      final GraphicsContext gc = getGraphicsContext2D();
+      for (int i = highlights.size() - 1; i >= 0; i--)
+      {
+         final OverlayHighlight highlight = highlights.get(i);
+         final double opacity = highlight.opacity(time);
+         if (highlight.isFinished() || highlight.control.getScene() != getScene())
+         {
+            highlight.control.localToSceneTransformProperty().removeListener(highlight.repaintListener);
+            highlight.control.layoutBoundsProperty().removeListener(highlight.repaintListener);
+            highlights.remove(i);
+         }
+         else if (opacity > 0 && highlight.fill != null && highlight.control.isVisible())
+         {
+            gc.save();
+            clipToMask(gc, highlight.control, highlight.mask);
+            gc.setGlobalAlpha(opacity);
+            gc.setFill(highlight.fill);
+            final Bounds bounds = highlight.control.getLayoutBounds();
+            gc.fillRect(bounds.getMinX(), bounds.getMinY(), bounds.getWidth(), bounds.getHeight());
+            gc.restore();
+            painted = true;
+         }
+      }
+      for (int i = ripples.size() - 1; i >= 0; i--)
+      {
+         final OverlayRipple ripple = ripples.get(i);
+         if (!ripple.update(time) || ripple.control.getScene() != getScene())
+         {
+            ripples.remove(i);
+         }
+         else if (ripple.control.isVisible())
+         {
+            gc.save();
+            clipToMask(gc, ripple.control, ripple.mask);
+            gc.setGlobalAlpha(ripple.opacity);
+            gc.setFill(ripple.fill);
+            final double radius = ripple.radius * ripple.scale;
+            gc.fillOval(ripple.centerX + ripple.translateX - radius, ripple.centerY + ripple.translateY - radius, radius * 2, radius * 2);
+            gc.restore();
+            painted = true;
+         }
+      }
+      if (ripples.isEmpty() && highlights.isEmpty())
+      {
+         update();
+      }
+      else if (ripples.isEmpty() && !isHighlightAnimating())
+      {
+         // steady highlights are repainted only when their control moves
+         JFXAnimationScheduler.getInstance().unregister(pulseReceiver);
+      }
+   }
+
+   private boolean isHighlightAnimating()
+   {
+      for (OverlayHighlight highlight : highlights)
+      {
+         if (highlight.isAnimating())
+         {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   /**
+    * sets the transform of the graphics context to the control coordinates then clip it to the
+    * control mask
+    */
+   private void clipToMask(GraphicsContext gc, Node control, RipplerMask mask)
+   {
+      transform.setToTransform(getLocalToSceneTransform());
+      try
+      {
+         transform.invert();
+      }
+      catch (NonInvertibleTransformException e)
+      {
+         transform.setToIdentity();
+      }
+      transform.append(control.getLocalToSceneTransform());
+      gc.setTransform(transform);
+
+      final Bounds bounds = control.getLayoutBounds();
+      gc.beginPath();
+      if (mask == RipplerMask.CIRCLE)
+      {
+         final double radius = Math.min(bounds.getWidth(), bounds.getHeight()) / 2;
+         gc.arc(bounds.getMinX() + bounds.getWidth() / 2, bounds.getMinY() + bounds.getHeight() / 2, radius, radius, 0, 360);
+      }
+      else
+      {
+         double arc = 0;
+         if (mask == RipplerMask.FIT && control instanceof Region)
+         {
+            final Background background = ((Region) control).getBackground();
+            if (background != null && !background.getFills().isEmpty())
+            {
+               final BackgroundFill fill = background.getFills().get(0);
+               final CornerRadii radii = fill.getRadii();
+               arc = radii == null ? 0 : radii.getTopLeftHorizontalRadius();
+            }
+         }
+         appendRoundRect(gc, bounds.getMinX(), bounds.getMinY(), bounds.getWidth(), bounds.getHeight(), arc);
+      }
+      gc.closePath();
+      gc.clip();
+   }
+
+   private static void appendRoundRect(GraphicsContext gc, double x, double y, double width, double height, double radius)
+   {
+      radius = Math.min(radius, Math.min(width, height) / 2);
+      gc.moveTo(x + radius, y);
+      gc.lineTo(x + width - radius, y);
+      gc.arcTo(x + width, y, x + width, y + radius, radius);
+      gc.lineTo(x + width, y + height - radius);
+      gc.arcTo(x + width, y + height, x + width - radius, y + height, radius);
+      gc.lineTo(x + radius, y + height);
+      gc.arcTo(x, y + height, x, y + height - radius, radius);
+      gc.lineTo(x, y + radius);
+      gc.arcTo(x, y, x + radius, y, radius);
+   }
+
+   /**
+    * ripple state, it grows while pressed then fades out once released
+    */
+   private static final class OverlayRipple
+   {
+      final Node control;
+      final double centerX;
+      final double centerY;
+      final double radius;
+      final Paint fill;
+      final RipplerMask mask;
+      double recenterX = 0;
+      double recenterY = 0;
+
+      double startTime = -1;
+      double releaseTime = -1;
+      boolean released = false;
+      double releaseScale;
+      double releaseOpacity;
+      double releaseTranslateX;
+      double releaseTranslateY;
+      double outDuration;
+
+      double scale = 0;
+      double opacity = 1;
+      double translateX = 0;
+      double translateY = 0;
+
+      OverlayRipple(Node control, double centerX, double centerY, double radius, Paint fill, RipplerMask mask)
+      {
+         this.control = control;
+         this.centerX = centerX;
+         this.centerY = centerY;
+         this.radius = radius;
+         this.fill = fill;
+         this.mask = mask;
+      }
+
+      void release()
+      {
+         released = true;
+      }
+
+      /**
+       * @return false if the ripple is finished
+       */
+      boolean update(double time)
+      {
+         if (startTime < 0)
+         {
+            startTime = time;
+         }
+         if (released && releaseTime < 0)
+         {
+            releaseTime = time;
+            releaseScale = scale;
+            releaseOpacity = opacity;
+            releaseTranslateX = translateX;
+            releaseTranslateY = translateY;
+            outDuration = Math.min(RIPPLE_OUT_DURATION, (0.9 * 500) / scale);
+         }
+         if (releaseTime < 0)
+         {
+            final double fraction = Math.min(1, (time - startTime) / RIPPLE_IN_DURATION);
+            scale = RIPPLE_INTERPOLATOR.interpolate(0, 0.9, fraction);
+            translateX = RIPPLE_INTERPOLATOR.interpolate(0, recenterX, fraction);
+            translateY = RIPPLE_INTERPOLATOR.interpolate(0, recenterY, fraction);
+            opacity = 1;
+            return true;
+         }
+         final double fraction = outDuration <= 0 ? 1 : Math.min(1, (time - releaseTime) / outDuration);
+         scale = RIPPLE_INTERPOLATOR.interpolate(releaseScale, 1, fraction);
+         opacity = RIPPLE_INTERPOLATOR.interpolate(releaseOpacity, 0, fraction);
+         translateX = RIPPLE_INTERPOLATOR.interpolate(releaseTranslateX, recenterX, fraction);
+         translateY = RIPPLE_INTERPOLATOR.interpolate(releaseTranslateY, recenterY, fraction);
+         return fraction < 1;
+      }
+   }
+
+   /**
+    * highlight overlay state, fades in while visible and fades out when hidden
+    */
+   private final class OverlayHighlight
+   {
+      final Node control;
+      final InvalidationListener repaintListener = observable -> update();
+      Paint fill;
+      RipplerMask mask;
+      boolean visible = false;
+      double changeTime = -1;
+      double startOpacity = 0;
+      double currentOpacity = 0;
+
+      OverlayHighlight(Node control)
+      {
+         this.control = control;
+      }
+
+      void setVisible(boolean visible)
+      {
+         if (this.visible != visible)
+         {
+            this.visible = visible;
+            // the animation start time is set on the next pulse
+            changeTime = -1;
+            startOpacity = currentOpacity;
+         }
+      }
+
+      double opacity(double time)
+      {
+         if (changeTime < 0)
+         {
+            changeTime = time;
+         }
+         final double fraction = Math.min(1, (time - changeTime) / HIGHLIGHT_DURATION);
+         currentOpacity = visible ? Interpolator.EASE_IN.interpolate(startOpacity, 1, fraction)
+               : Interpolator.EASE_OUT.interpolate(startOpacity, 0, fraction);
+         return currentOpacity;
+      }
+
+      boolean isAnimating()
+      {
+         return changeTime < 0 || currentOpacity != (visible ? 1 : 0);
+      }
+
+      boolean isFinished()
+      {
+         return !visible && currentOpacity <= 0;
+      }
+   }
+}
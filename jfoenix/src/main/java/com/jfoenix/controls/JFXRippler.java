@@ -19,11 +19,11 @@
 
 package com.jfoenix.controls;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedList;
+import java.util.Deque;
 import java.util.List;
-import java.util.Queue;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.jfoenix.converters.RipplerMaskTypeConverter;
@@ -36,7 +36,10 @@ import javafx.animation.KeyValue;
 import javafx.animation.Timeline;
 import javafx.beans.DefaultProperty;
 import javafx.beans.binding.Bindings;
+import javafx.beans.binding.ObjectBinding;
+import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.css.CssMetaData;
 import javafx.css.SimpleStyleableBooleanProperty;
@@ -89,6 +92,7 @@ public class JFXRippler extends StackPane
       CIRCLE, RECT, FIT
    }
 
+   // ripple nodes, created lazily by createRippleUI() on the first interaction with the control
    protected RippleGenerator rippler;
    protected Pane ripplerPane;
    protected Node control;
@@ -154,7 +158,6 @@ public class JFXRippler extends StackPane
 
       setMaskType(mask);
       setPosition(pos);
-      createRippleUI();
       setControl(control);
 
       // listen to control position changed
@@ -166,14 +169,34 @@ public class JFXRippler extends StackPane
       setCacheShape(true);
    }
 
+   /**
+    * creates the ripple nodes if they are not created yet. ripple nodes are created on the first
+    * hover, press or focus of the control, so controls that are never used don't pay for them
+    */
    protected final void createRippleUI()
    {
+      if (ripplerPane != null)
+      {
+         return;
+      }
       // create rippler panels
       rippler = new RippleGenerator();
       ripplerPane = new StackPane();
       ripplerPane.setMouseTransparent(true);
       ripplerPane.getChildren().add(rippler);
-      getChildren().add(ripplerPane);
+      if (getPosition() == RipplerPos.BACK)
+      {
+         getChildren().add(0, ripplerPane);
+      }
+      else
+      {
+         getChildren().add(ripplerPane);
+      }
+      // the mask is computed right away, so don't wait for the next layout pass
+      ripplerPane.resizeRelocate(snappedLeftInset(),
+                                 snappedTopInset(),
+                                 getWidth() - snappedLeftInset() - snappedRightInset(),
+                                 getHeight() - snappedTopInset() - snappedBottomInset());
    }
 
    /***************************************************************************
@@ -207,6 +230,10 @@ public class JFXRippler extends StackPane
 
    protected void updateControlPosition()
    {
+      if (ripplerPane == null)
+      {
+         return;
+      }
       if (this.position.get() == RipplerPos.BACK)
       {
          ripplerPane.toBack();
@@ -313,11 +340,28 @@ public class JFXRippler extends StackPane
       {
          control.boundsInParentProperty().addListener(observable -> resetRippler());
       }
+      // prepare the ripple nodes before the control is pressed or focused by the keyboard
+      control.addEventHandler(MouseEvent.MOUSE_ENTERED, e -> prepareRippleUI());
+      control.focusedProperty().addListener((o, oldVal, newVal) ->
+      {
+         if (newVal)
+         {
+            prepareRippleUI();
+         }
+      });
       control.addEventHandler(MouseEvent.MOUSE_PRESSED, (event) -> createRipple(event.getX(), event.getY()));
       // create fade out transition for the ripple
       control.addEventHandler(MouseEvent.MOUSE_RELEASED, e -> releaseRipple());
    }
 
+   private void prepareRippleUI()
+   {
+      if (!isRipplerDisabled() && getRippleOverlay() == null)
+      {
+         createRippleUI();
+      }
+   }
+
    /**
     * creates Ripple effect
     */
@@ -325,6 +369,13 @@ public class JFXRippler extends StackPane
    {
       if (!isRipplerDisabled())
       {
+         final JFXRippleOverlay overlay = getRippleOverlay();
+         if (overlay != null)
+         {
+            createOverlayRipple(overlay, x, y);
+            return;
+         }
+         createRippleUI();
          rippler.setGeneratorCenterX(x);
          rippler.setGeneratorCenterY(y);
          rippler.createRipple();
@@ -333,7 +384,58 @@ public class JFXRippler extends StackPane
 
    protected void releaseRipple()
    {
-      rippler.releaseRipple();
+      if (releaseOverlayRipple != null)
+      {
+         releaseOverlayRipple.run();
+         releaseOverlayRipple = null;
+         setOverlayHighlightVisible(false);
+         return;
+      }
+      if (rippler != null)
+      {
+         rippler.releaseRipple();
+      }
+   }
+
+   /***************************************************************************
+    * * Overlay Rendering * *
+    **************************************************************************/
+
+   // release callback of the ripple drawn by the ripple overlay
+   private Runnable releaseOverlayRipple = null;
+
+   /**
+    * @return the ripple overlay of the control scene, ripples are drawn by the overlay instead of
+    *       ripple nodes when it's not null. The overlay is drawn above the scene content, so it's not
+    *       used for ripples positioned behind the control.
+    */
+   protected JFXRippleOverlay getRippleOverlay()
+   {
+      if (control == null || getPosition() == RipplerPos.BACK)
+      {
+         return null;
+      }
+      return JFXRippleOverlay.getOverlay(control.getScene());
+   }
+
+   private void createOverlayRipple(JFXRippleOverlay overlay, double x, double y)
+   {
+      if (!enabled || releaseOverlayRipple != null)
+      {
+         return;
+      }
+      final double radius = getRipplerRadius().doubleValue() == Region.USE_COMPUTED_SIZE ? computeRippleRadius() : getRipplerRadius().doubleValue();
+      releaseOverlayRipple = overlay.ripple(control, x, y, radius, rippleFill().get(), getMaskType(), isRipplerRecenter());
+      overlay.setHighlightVisible(control, overlayFill().get(), getMaskType(), true);
+   }
+
+   private void setOverlayHighlightVisible(boolean visible)
+   {
+      final JFXRippleOverlay overlay = getRippleOverlay();
+      if (overlay != null && (visible || !forceOverlay))
+      {
+         overlay.setHighlightVisible(control, overlayFill().get(), getMaskType(), visible);
+      }
    }
 
    /**
@@ -345,9 +447,7 @@ public class JFXRippler extends StackPane
    {
       if (!isRipplerDisabled())
       {
-         rippler.setGeneratorCenterX(control.getLayoutBounds().getWidth() / 2);
-         rippler.setGeneratorCenterY(control.getLayoutBounds().getHeight() / 2);
-         rippler.createRipple();
+         createRipple(control.getLayoutBounds().getWidth() / 2, control.getLayoutBounds().getHeight() / 2);
          return () ->
          {
             // create fade out transition for the ripple
@@ -397,6 +497,12 @@ public class JFXRippler extends StackPane
    @Deprecated
    public void showOverlay()
    {
+      if (getRippleOverlay() != null)
+      {
+         setOverlayHighlightVisible(true);
+         return;
+      }
+      createRippleUI();
       if (rippler.overlayRect != null)
       {
          rippler.overlayRect.outAnimation.stop();
@@ -410,12 +516,14 @@ public class JFXRippler extends StackPane
    {
       if (!forceOverlay)
       {
-         if (rippler.overlayRect != null)
+         if (getRippleOverlay() != null)
          {
-            rippler.overlayRect.inAnimation.stop();
+            setOverlayHighlightVisible(false);
+            return;
          }
-         if (rippler.overlayRect != null)
+         if (rippler != null && rippler.overlayRect != null)
          {
+            rippler.overlayRect.inAnimation.stop();
             rippler.overlayRect.outAnimation.play();
          }
       }
@@ -425,6 +533,68 @@ public class JFXRippler extends StackPane
       }
    }
 
+   // ripple and overlay colors are only derived when the rippler fill changes
+   private ObjectBinding<Paint> rippleFill;
+   private ObjectBinding<Paint> overlayFill;
+
+   private ObjectBinding<Paint> rippleFill()
+   {
+      if (rippleFill == null)
+      {
+         rippleFill = Bindings.createObjectBinding(() ->
+         {
+            if (getRipplerFill() instanceof Color)
+            {
+               Color color = (Color) getRipplerFill();
+               return new Color(color.getRed(), color.getGreen(), color.getBlue(), 0.3);
+            }
+            return getRipplerFill();
+         }, ripplerFillProperty());
+      }
+      return rippleFill;
+   }
+
+   private ObjectBinding<Paint> overlayFill()
+   {
+      if (overlayFill == null)
+      {
+         overlayFill = Bindings.createObjectBinding(() ->
+         {
+            if (getRipplerFill() instanceof Color)
+            {
+               Color color = (Color) getRipplerFill();
+               return new Color(color.getRed(), color.getGreen(), color.getBlue(), 0.2);
+            }
+            return Color.TRANSPARENT;
+         }, ripplerFillProperty());
+      }
+      return overlayFill;
+   }
+
+   /**
+    * maximum number of idle ripples kept by each rippler to be reused
+    */
+   private static final int RIPPLE_POOL_SIZE = 4;
+
+   private static long ripplePoolHits = 0;
+   private static long ripplePoolMisses = 0;
+
+   /**
+    * @return the number of ripples reused from the ripple pools of all ripplers
+    */
+   public static long getRipplePoolHits()
+   {
+      return ripplePoolHits;
+   }
+
+   /**
+    * @return the number of ripples created because the ripple pool of the rippler was empty
+    */
+   public static long getRipplePoolMisses()
+   {
+      return ripplePoolMisses;
+   }
+
    /**
     * Generates ripples on the screen every 0.3 seconds or whenever the createRipple method is called.
     * Ripples grow and fade out over 0.6 seconds
@@ -438,7 +608,9 @@ public class JFXRippler extends StackPane
       private AtomicBoolean generating = new AtomicBoolean(false);
       private boolean cacheRipplerClip = false;
       private boolean resetClip = false;
-      private Queue<Ripple> ripplesQueue = new LinkedList<Ripple>();
+      private Deque<Ripple> ripplesQueue = new ArrayDeque<>();
+      // idle ripples, their animations are reset instead of being rebuilt
+      private Deque<Ripple> ripplePool = new ArrayDeque<>(RIPPLE_POOL_SIZE);
 
       RippleGenerator()
       {
@@ -464,14 +636,15 @@ public class JFXRippler extends StackPane
                this.resetClip = false;
 
                // create the ripple effect
-               final Ripple ripple = new Ripple(generatorCenterX, generatorCenterY);
+               final Ripple ripple = acquireRipple();
+               ripple.reset(generatorCenterX, generatorCenterY);
                getChildren().add(ripple);
                ripplesQueue.add(ripple);
 
                // animate the ripple
                overlayRect.outAnimation.stop();
                overlayRect.inAnimation.play();
-               ripple.inAnimation.play();
+               ripple.inAnimation.playFromStart();
             }
          }
       }
@@ -481,10 +654,7 @@ public class JFXRippler extends StackPane
          Ripple ripple = ripplesQueue.poll();
          if (ripple != null)
          {
-            ripple.inAnimation.stop();
-            ripple.outAnimation = new Timeline(new KeyFrame(Duration.millis(Math.min(800, (0.9 * 500) / ripple.getScaleX())), ripple.outKeyValues));
-            ripple.outAnimation.setOnFinished((event) -> getChildren().remove(ripple));
-            ripple.outAnimation.play();
+            ripple.release();
             if (generating.getAndSet(false))
             {
                if (overlayRect != null)
@@ -499,6 +669,27 @@ public class JFXRippler extends StackPane
          }
       }
 
+      private Ripple acquireRipple()
+      {
+         Ripple ripple = ripplePool.poll();
+         if (ripple != null)
+         {
+            ripplePoolHits++;
+            return ripple;
+         }
+         ripplePoolMisses++;
+         return new Ripple();
+      }
+
+      private void recycleRipple(Ripple ripple)
+      {
+         getChildren().remove(ripple);
+         if (ripplePool.size() < RIPPLE_POOL_SIZE && !ripplePool.contains(ripple))
+         {
+            ripplePool.push(ripple);
+         }
+      }
+
       void cacheRippleClip(boolean cached)
       {
          cacheRipplerClip = cached;
@@ -511,17 +702,7 @@ public class JFXRippler extends StackPane
             overlayRect = new OverLayRipple();
             overlayRect.setClip(getMask());
             getChildren().add(0, overlayRect);
-            overlayRect.fillProperty().bind(Bindings.createObjectBinding(() ->
-            {
-               if (ripplerFill.get() instanceof Color)
-               {
-                  return new Color(((Color) ripplerFill.get()).getRed(), ((Color) ripplerFill.get()).getGreen(), ((Color) ripplerFill.get()).getBlue(), 0.2);
-               }
-               else
-               {
-                  return Color.TRANSPARENT;
-               }
-            }, ripplerFill));
+            overlayRect.fillProperty().bind(overlayFill());
          }
       }
 
@@ -567,68 +748,79 @@ public class JFXRippler extends StackPane
 
       private final class Ripple extends Circle
       {
+         private static final double OUT_DURATION = 800;
 
-         KeyValue[] outKeyValues;
-         Animation outAnimation = null;
-         Animation inAnimation = null;
+         // recenter progress, moves the ripple towards the center of the control
+         private final DoubleProperty recenter = new SimpleDoubleProperty(0);
+         private double recenterX = 0;
+         private double recenterY = 0;
 
-         private Ripple(double centerX, double centerY)
+         final Animation inAnimation;
+         final Animation outAnimation;
+
+         private Ripple()
          {
-            super(centerX,
-                  centerY,
-                  ripplerRadius.get().doubleValue() == Region.USE_COMPUTED_SIZE ? computeRippleRadius() : ripplerRadius.get().doubleValue(),
-                  null);
             setCache(true);
             setCacheHint(CacheHint.SPEED);
             setCacheShape(true);
             setManaged(false);
             setSmooth(true);
 
-            KeyValue[] inKeyValues = new KeyValue[isRipplerRecenter() ? 4 : 2];
-            outKeyValues = new KeyValue[isRipplerRecenter() ? 5 : 3];
-
-            inKeyValues[0] = new KeyValue(scaleXProperty(), 0.9, rippleInterpolator);
-            inKeyValues[1] = new KeyValue(scaleYProperty(), 0.9, rippleInterpolator);
+            recenter.addListener(observable ->
+            {
+               setTranslateX(recenter.get() * recenterX);
+               setTranslateY(recenter.get() * recenterY);
+            });
 
-            outKeyValues[0] = new KeyValue(this.scaleXProperty(), 1, rippleInterpolator);
-            outKeyValues[1] = new KeyValue(this.scaleYProperty(), 1, rippleInterpolator);
-            outKeyValues[2] = new KeyValue(this.opacityProperty(), 0, rippleInterpolator);
+            inAnimation = new Timeline(new KeyFrame(Duration.ZERO,
+                                                    new KeyValue(scaleXProperty(), 0, rippleInterpolator),
+                                                    new KeyValue(scaleYProperty(), 0, rippleInterpolator),
+                                                    new KeyValue(recenter, 0, rippleInterpolator),
+                                                    new KeyValue(opacityProperty(), 1, rippleInterpolator)),
+                                       new KeyFrame(Duration.millis(900),
+                                                    new KeyValue(scaleXProperty(), 0.9, rippleInterpolator),
+                                                    new KeyValue(scaleYProperty(), 0.9, rippleInterpolator),
+                                                    new KeyValue(recenter, 1, rippleInterpolator)));
+            // the out duration depends on the ripple scale, it's applied through the animation rate
+            outAnimation = new Timeline(new KeyFrame(Duration.millis(OUT_DURATION),
+                                                     new KeyValue(scaleXProperty(), 1, rippleInterpolator),
+                                                     new KeyValue(scaleYProperty(), 1, rippleInterpolator),
+                                                     new KeyValue(opacityProperty(), 0, rippleInterpolator),
+                                                     new KeyValue(recenter, 1, rippleInterpolator)));
+            outAnimation.setOnFinished(event -> recycleRipple(this));
+         }
 
+         void reset(double centerX, double centerY)
+         {
+            outAnimation.stop();
+            setCenterX(centerX);
+            setCenterY(centerY);
+            setRadius(getRipplerRadius().doubleValue() == Region.USE_COMPUTED_SIZE ? computeRippleRadius() : getRipplerRadius().doubleValue());
+            recenterX = 0;
+            recenterY = 0;
             if (isRipplerRecenter())
             {
                double dx = (control.getLayoutBounds().getWidth() / 2 - centerX) / 1.55;
                double dy = (control.getLayoutBounds().getHeight() / 2 - centerY) / 1.55;
-               inKeyValues[2] = outKeyValues[3] = new KeyValue(translateXProperty(),
-                                                               Math.signum(dx) * Math.min(Math.abs(dx), this.getRadius() / 2),
-                                                               rippleInterpolator);
-               inKeyValues[3] = outKeyValues[4] = new KeyValue(translateYProperty(),
-                                                               Math.signum(dy) * Math.min(Math.abs(dy), this.getRadius() / 2),
-                                                               rippleInterpolator);
+               recenterX = Math.signum(dx) * Math.min(Math.abs(dx), this.getRadius() / 2);
+               recenterY = Math.signum(dy) * Math.min(Math.abs(dy), this.getRadius() / 2);
             }
-            inAnimation = new Timeline(new KeyFrame(Duration.ZERO,
-                                                    new KeyValue(scaleXProperty(), 0, rippleInterpolator),
-                                                    new KeyValue(scaleYProperty(), 0, rippleInterpolator),
-                                                    new KeyValue(translateXProperty(), 0, rippleInterpolator),
-                                                    new KeyValue(translateYProperty(), 0, rippleInterpolator),
-                                                    new KeyValue(opacityProperty(), 1, rippleInterpolator)),
-                                       new KeyFrame(Duration.millis(900), inKeyValues));
-
+            recenter.set(0);
+            setTranslateX(0);
+            setTranslateY(0);
             setScaleX(0);
             setScaleY(0);
-            if (ripplerFill.get() instanceof Color)
-            {
-               Color circleColor = new Color(((Color) ripplerFill.get()).getRed(),
-                                             ((Color) ripplerFill.get()).getGreen(),
-                                             ((Color) ripplerFill.get()).getBlue(),
-                                             0.3);
-               setStroke(circleColor);
-               setFill(circleColor);
-            }
-            else
-            {
-               setStroke(ripplerFill.get());
-               setFill(ripplerFill.get());
-            }
+            setOpacity(1);
+            final Paint fill = rippleFill().get();
+            setStroke(fill);
+            setFill(fill);
+         }
+
+         void release()
+         {
+            inAnimation.stop();
+            outAnimation.setRate(OUT_DURATION / Math.min(OUT_DURATION, (0.9 * 500) / getScaleX()));
+            outAnimation.playFromStart();
          }
       }
 
@@ -642,7 +834,7 @@ public class JFXRippler extends StackPane
 
    private void resetOverLay()
    {
-      if (rippler.overlayRect != null)
+      if (rippler != null && rippler.overlayRect != null)
       {
          rippler.overlayRect.inAnimation.stop();
          final RippleGenerator.OverLayRipple oldOverlay = rippler.overlayRect;
@@ -654,7 +846,10 @@ public class JFXRippler extends StackPane
 
    private void resetClip()
    {
-      this.rippler.resetClip = true;
+      if (rippler != null)
+      {
+         this.rippler.resetClip = true;
+      }
    }
 
    protected void resetRippler()
@@ -683,10 +878,7 @@ public class JFXRippler extends StackPane
     * the ripple recenter property, by default it's false. if true the ripple effect will show
     * gravitational pull to the center of its control
     */
-   private StyleableObjectProperty<Boolean> ripplerRecenter = new SimpleStyleableObjectProperty<>(StyleableProperties.RIPPLER_RECENTER,
-                                                                                                  JFXRippler.this,
-                                                                                                  "ripplerRecenter",
-                                                                                                  false);
+   private StyleableObjectProperty<Boolean> ripplerRecenter;
 
    public Boolean isRipplerRecenter()
    {
@@ -695,21 +887,25 @@ public class JFXRippler extends StackPane
 
    public StyleableObjectProperty<Boolean> ripplerRecenterProperty()
    {
+      if (this.ripplerRecenter == null)
+      {
+         this.ripplerRecenter = new SimpleStyleableObjectProperty<>(StyleableProperties.RIPPLER_RECENTER,
+                                                                    JFXRippler.this,
+                                                                    "ripplerRecenter",
+                                                                    false);
+      }
       return this.ripplerRecenter;
    }
 
    public void setRipplerRecenter(Boolean radius)
    {
-      this.ripplerRecenter.set(radius);
+      ripplerRecenterProperty().set(radius);
    }
 
    /**
     * the ripple radius size, by default it will be automatically computed.
     */
-   private StyleableObjectProperty<Number> ripplerRadius = new SimpleStyleableObjectProperty<>(StyleableProperties.RIPPLER_RADIUS,
-                                                                                               JFXRippler.this,
-                                                                                               "ripplerRadius",
-                                                                                               Region.USE_COMPUTED_SIZE);
+   private StyleableObjectProperty<Number> ripplerRadius;
 
    public Number getRipplerRadius()
    {
@@ -718,21 +914,25 @@ public class JFXRippler extends StackPane
 
    public StyleableObjectProperty<Number> ripplerRadiusProperty()
    {
+      if (this.ripplerRadius == null)
+      {
+         this.ripplerRadius = new SimpleStyleableObjectProperty<>(StyleableProperties.RIPPLER_RADIUS,
+                                                                  JFXRippler.this,
+                                                                  "ripplerRadius",
+                                                                  Region.USE_COMPUTED_SIZE);
+      }
       return this.ripplerRadius;
    }
 
    public void setRipplerRadius(Number radius)
    {
-      this.ripplerRadius.set(radius);
+      ripplerRadiusProperty().set(radius);
    }
 
    /**
     * the default color of the ripple effect
     */
-   private StyleableObjectProperty<Paint> ripplerFill = new SimpleStyleableObjectProperty<>(StyleableProperties.RIPPLER_FILL,
-                                                                                            JFXRippler.this,
-                                                                                            "ripplerFill",
-                                                                                            Color.rgb(0, 200, 255));
+   private StyleableObjectProperty<Paint> ripplerFill;
 
    public Paint getRipplerFill()
    {
@@ -741,12 +941,19 @@ public class JFXRippler extends StackPane
 
    public StyleableObjectProperty<Paint> ripplerFillProperty()
    {
+      if (this.ripplerFill == null)
+      {
+         this.ripplerFill = new SimpleStyleableObjectProperty<>(StyleableProperties.RIPPLER_FILL,
+                                                                JFXRippler.this,
+                                                                "ripplerFill",
+                                                                Color.rgb(0, 200, 255));
+      }
       return this.ripplerFill;
    }
 
    public void setRipplerFill(Paint color)
    {
-      this.ripplerFill.set(color);
+      ripplerFillProperty().set(color);
    }
 
    /**
@@ -775,10 +982,7 @@ public class JFXRippler extends StackPane
    /**
     * the ripple disable, by default it's false. if true the ripple effect will be hidden
     */
-   private StyleableBooleanProperty ripplerDisabled = new SimpleStyleableBooleanProperty(StyleableProperties.RIPPLER_DISABLED,
-                                                                                         JFXRippler.this,
-                                                                                         "ripplerDisabled",
-                                                                                         false);
+   private StyleableBooleanProperty ripplerDisabled;
 
    public Boolean isRipplerDisabled()
    {
@@ -787,12 +991,19 @@ public class JFXRippler extends StackPane
 
    public StyleableBooleanProperty ripplerDisabledProperty()
    {
+      if (this.ripplerDisabled == null)
+      {
+         this.ripplerDisabled = new SimpleStyleableBooleanProperty(StyleableProperties.RIPPLER_DISABLED,
+                                                                   JFXRippler.this,
+                                                                   "ripplerDisabled",
+                                                                   false);
+      }
       return this.ripplerDisabled;
    }
 
    public void setRipplerDisabled(Boolean disabled)
    {
-      this.ripplerDisabled.set(disabled);
+      ripplerDisabledProperty().set(disabled);
    }
 
    /**
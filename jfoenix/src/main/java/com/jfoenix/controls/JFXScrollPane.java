@@ -19,19 +19,19 @@
 
 package com.jfoenix.controls;
 
-import java.util.function.Function;
-
-import javafx.animation.Animation;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
 import javafx.beans.DefaultProperty;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
 import javafx.beans.property.DoubleProperty;
 import javafx.event.EventHandler;
 import javafx.geometry.Bounds;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
+import javafx.scene.control.Control;
 import javafx.scene.control.ScrollPane;
+import javafx.scene.control.SkinBase;
+import javafx.scene.control.skin.VirtualFlow;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.input.ScrollEvent;
 import javafx.scene.layout.Background;
@@ -44,7 +44,6 @@ import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.transform.Scale;
 import javafx.scene.transform.Transform;
-import javafx.util.Duration;
 
 /**
  * <h1>Material Design ScrollPane with header</h1>
@@ -263,27 +262,31 @@ public class JFXScrollPane extends StackPane
       return condensedHeaderBackground;
    }
 
-   private static void customScrolling(ScrollPane scrollPane, DoubleProperty scrollDriection, Function<Bounds, Double> sizeFunc)
+   private static void customScrolling(ScrollPane scrollPane, DoubleProperty scrollDirection, boolean horizontal)
    {
-      final double[] frictions = {0.99, 0.1, 0.05, 0.04, 0.03, 0.02, 0.01, 0.04, 0.01, 0.008, 0.008, 0.008, 0.008, 0.0006, 0.0005, 0.00003, 0.00001};
-      final double[] pushes = {1};
-      final double[] derivatives = new double[frictions.length];
-
-      Timeline timeline = new Timeline();
-      final EventHandler<MouseEvent> dragHandler = event -> timeline.stop();
-      final EventHandler<ScrollEvent> scrollHandler = event ->
+      final InertialScrollEngine.Scroller scroller = new InertialScrollEngine.Scroller()
       {
-         if (event.getEventType() == ScrollEvent.SCROLL)
+         @Override
+         boolean scrollPixels(double delta)
          {
-            int direction = event.getDeltaY() > 0 ? -1 : 1;
-            for (int i = 0; i < pushes.length; i++)
-            {
-               derivatives[i] += direction * pushes[i];
-            }
-            if (timeline.getStatus() == Animation.Status.STOPPED)
+            Bounds bounds = scrollPane.getContent().getLayoutBounds();
+            double size = horizontal ? bounds.getWidth() : bounds.getHeight();
+            if (size <= 0)
             {
-               timeline.play();
+               return false;
             }
+            double oldValue = scrollDirection.get();
+            double newValue = Math.min(Math.max(oldValue + delta / size, 0), 1);
+            scrollDirection.set(newValue);
+            return newValue != oldValue;
+         }
+      };
+      final EventHandler<MouseEvent> dragHandler = event -> InertialScrollEngine.INSTANCE.stop(scroller);
+      final EventHandler<ScrollEvent> scrollHandler = event ->
+      {
+         if (event.getEventType() == ScrollEvent.SCROLL)
+         {
+            InertialScrollEngine.INSTANCE.push(scroller, event.getDeltaY() > 0 ? -1 : 1);
             event.consume();
          }
       };
@@ -305,35 +308,86 @@ public class JFXScrollPane extends StackPane
             newVal.addEventHandler(ScrollEvent.ANY, scrollHandler);
          }
       });
-      timeline.getKeyFrames().add(new KeyFrame(Duration.millis(3), (event) ->
+   }
+
+   public static void smoothScrolling(ScrollPane scrollPane)
+   {
+      customScrolling(scrollPane, scrollPane.vvalueProperty(), false);
+   }
+
+   public static void smoothHScrolling(ScrollPane scrollPane)
+   {
+      customScrolling(scrollPane, scrollPane.hvalueProperty(), true);
+   }
+
+   /**
+    * smooth scrolling along the orientation of the specified virtual flow, the scroll events are
+    * consumed before reaching the flow and replaced by inertial scrolling
+    *
+    * @param flow the virtual flow of a {@link javafx.scene.control.ListView},
+    *             {@link javafx.scene.control.TreeView} or {@link javafx.scene.control.TreeTableView}
+    */
+   public static void smoothScrolling(VirtualFlow<?> flow)
+   {
+      final InertialScrollEngine.Scroller scroller = new InertialScrollEngine.Scroller()
       {
-         for (int i = 0; i < derivatives.length; i++)
+         @Override
+         boolean scrollPixels(double delta)
          {
-            derivatives[i] *= frictions[i];
+            return flow.scrollPixels(delta) != 0;
          }
-         for (int i = 1; i < derivatives.length; i++)
-         {
-            derivatives[i] += derivatives[i - 1];
-         }
-         double dy = derivatives[derivatives.length - 1];
-         double size = sizeFunc.apply(scrollPane.getContent().getLayoutBounds());
-         scrollDriection.set(Math.min(Math.max(scrollDriection.get() + dy / size, 0), 1));
-         if (Math.abs(dy) < 0.001)
+      };
+      flow.addEventHandler(MouseEvent.DRAG_DETECTED, event -> InertialScrollEngine.INSTANCE.stop(scroller));
+      flow.addEventFilter(ScrollEvent.SCROLL, event ->
+      {
+         if (event.getDeltaY() != 0)
          {
-            timeline.stop();
+            InertialScrollEngine.INSTANCE.push(scroller, event.getDeltaY() > 0 ? -1 : 1);
+            event.consume();
          }
-      }));
-      timeline.setCycleCount(Animation.INDEFINITE);
+      });
    }
 
-   public static void smoothScrolling(ScrollPane scrollPane)
+   /**
+    * smooth scrolling of a virtualized control, the virtual flow is looked up once the control
+    * skin is created
+    *
+    * @param control a control whose skin holds a {@link VirtualFlow}, e.g. a list or tree table view
+    */
+   public static void smoothVirtualScrolling(Control control)
    {
-      customScrolling(scrollPane, scrollPane.vvalueProperty(), bounds -> bounds.getHeight());
+      if (control.getSkin() != null)
+      {
+         smoothScrolling(lookupVirtualFlow(control));
+         return;
+      }
+      control.skinProperty().addListener(new InvalidationListener()
+      {
+         @Override
+         public void invalidated(Observable observable)
+         {
+            if (control.getSkin() != null)
+            {
+               control.skinProperty().removeListener(this);
+               smoothScrolling(lookupVirtualFlow(control));
+            }
+         }
+      });
    }
 
-   public static void smoothHScrolling(ScrollPane scrollPane)
+   private static VirtualFlow<?> lookupVirtualFlow(Control control)
    {
-      customScrolling(scrollPane, scrollPane.hvalueProperty(), bounds -> bounds.getWidth());
+      if (control.getSkin() instanceof SkinBase)
+      {
+         for (Node child : ((SkinBase<?>) control.getSkin()).getChildren())
+         {
+            if (child instanceof VirtualFlow)
+            {
+               return (VirtualFlow<?>) child;
+            }
+         }
+      }
+      throw new IllegalStateException("no VirtualFlow found in the skin of " + control);
    }
 
 }
@@ -49,6 +49,11 @@ public class JFXTreeCell<T> extends TreeCell<T>
 
    protected JFXRippler cellRippler = new JFXRippler(this)
    {
+      {
+         // cells are reused, so their ripple nodes are created upfront
+         createRippleUI();
+      }
+
       @Override
       protected Node getMask()
       {
@@ -20,17 +20,19 @@
 package com.jfoenix.controls;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
 import java.util.function.Predicate;
 
 import com.jfoenix.assets.JFoenixResources;
@@ -41,6 +43,8 @@ import com.jfoenix.utils.JFXUtilities;
 import javafx.application.Platform;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyDoubleWrapper;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.FXCollections;
@@ -235,6 +239,11 @@ public class JFXTreeTableView<S extends RecursiveTreeObject<S>> extends TreeTabl
       this.groupedRootConsumer = groupedRootConsumer;
    }
 
+   /**
+    * incremental grouping index, it's null while the tree table view is not grouped
+    */
+   private TreeTableGroupIndex<S> groupIndex;
+
    /**
     * this is a blocking method so it should not be called from the ui thread, it will regroup the tree
     * table view
@@ -246,11 +255,6 @@ public class JFXTreeTableView<S extends RecursiveTreeObject<S>> extends TreeTabl
       try
       {
          lock.lock();
-         // init groups map
-         if (groupOrder.size() == 0)
-         {
-            groups = new HashMap<>();
-         }
          try
          {
             if (originalRoot == null)
@@ -260,16 +264,21 @@ public class JFXTreeTableView<S extends RecursiveTreeObject<S>> extends TreeTabl
             List<TreeTableColumn<S, ?>> toBeAdded = new ArrayList<>();
             for (TreeTableColumn<S, ?> treeTableColumn : treeTableColumns)
             {
-               if (groupOrder.contains(treeTableColumn))
+               if (groupOrder.contains(treeTableColumn) || toBeAdded.contains(treeTableColumn))
                {
                   continue;
                }
                toBeAdded.add(treeTableColumn);
-               groups = group(treeTableColumn, groups, null, (RecursiveTreeItem<S>) originalRoot);
             }
+            if (toBeAdded.isEmpty())
+            {
+               return;
+            }
+            List<TreeTableColumn<S, ?>> grouped = new ArrayList<>(groupOrder);
+            grouped.addAll(toBeAdded);
             groupOrder.addAll(toBeAdded);
             // update table ui
-            buildGroupedRoot(groups, null, 0);
+            buildGroupIndex(grouped);
          }
          catch (Exception e)
          {
@@ -282,18 +291,6 @@ public class JFXTreeTableView<S extends RecursiveTreeObject<S>> extends TreeTabl
       }
    }
 
-   private void refreshGroups(List<TreeTableColumn<S, ?>> groupColumns)
-   {
-      groups = new HashMap<>();
-      for (TreeTableColumn<S, ?> treeTableColumn : groupColumns)
-      {
-         groups = group(treeTableColumn, groups, null, (RecursiveTreeItem<S>) originalRoot);
-      }
-      groupOrder.setAll(groupColumns);
-      // update table ui
-      buildGroupedRoot(groups, null, 0);
-   }
-
    /**
     * this is a blocking method so it should not be called from the ui thread, it will ungroup the tree
     * table view
@@ -313,10 +310,8 @@ public class JFXTreeTableView<S extends RecursiveTreeObject<S>> extends TreeTabl
             {
                ArrayList<TreeTableColumn<S, ?>> sortOrder = new ArrayList<>();
                sortOrder.addAll(getSortOrder());
-               // needs to reset the children in order to update the parent
-               List children = Arrays.asList(originalRoot.getChildren().toArray());
-               originalRoot.getChildren().clear();
-               originalRoot.getChildren().setAll(children);
+               // give the leaves back to the original root
+               disposeGroupIndex();
                // reset the original root
                internalSetRoot = true;
                setRoot(originalRoot);
@@ -325,7 +320,7 @@ public class JFXTreeTableView<S extends RecursiveTreeObject<S>> extends TreeTabl
                getSortOrder().addAll(sortOrder);
                if (grouped.size() != 0)
                {
-                  refreshGroups(grouped);
+                  buildGroupIndex(grouped);
                }
             });
          }
@@ -336,112 +331,56 @@ public class JFXTreeTableView<S extends RecursiveTreeObject<S>> extends TreeTabl
       }
    }
 
-   private Map group(TreeTableColumn<S, ?> column, Map parentGroup, Object key, RecursiveTreeItem<S> root)
+   /*
+    * this method is used to build the grouping index of the original root and set its root as the new
+    * tree table root
+    */
+   private void buildGroupIndex(List<TreeTableColumn<S, ?>> groupColumns)
    {
-      if (parentGroup.isEmpty())
-      {
-         parentGroup = groupByFunction(root.filteredItems, column);
-         return parentGroup;
-      }
-      Object value = parentGroup.get(key);
-      if (value instanceof List)
+      final TreeTableGroupIndex<S> oldIndex = groupIndex;
+      if (oldIndex != null)
       {
-         Object newGroup = groupByFunction((List) value, column);
-         parentGroup.put(key, newGroup);
-         return parentGroup;
-      }
-      else if (value instanceof Map)
-      {
-         for (Object childKey : ((Map) value).keySet())
-         {
-            value = group(column, (Map) value, childKey, root);
-         }
-         parentGroup.put(key, value);
-         return parentGroup;
+         oldIndex.detach();
       }
-      else if (key == null)
+      final TreeTableGroupIndex<S> newIndex = new TreeTableGroupIndex<>(this, (RecursiveTreeItem<S>) originalRoot, groupColumns);
+      groupIndex = newIndex;
+
+      // update ui
+      JFXUtilities.runInFX(() ->
       {
-         for (Object childKey : parentGroup.keySet())
+         if (oldIndex != null && oldIndex.getSource() != newIndex.getSource())
          {
-            parentGroup = group(column, parentGroup, childKey, root);
+            oldIndex.dispose();
          }
-         return parentGroup;
-      }
-      return parentGroup;
+         newIndex.getSource().getChildren().clear();
+         ArrayList<TreeTableColumn<S, ?>> sortOrder = new ArrayList<>();
+         sortOrder.addAll(getSortOrder());
+         internalSetRoot = true;
+         setRoot(newIndex.getRoot());
+         internalSetRoot = false;
+         getSortOrder().addAll(sortOrder);
+         getSelectionModel().select(0);
+      });
    }
 
+   /**
+    * groups the specified items by their cell data of the specified column
+    *
+    * @deprecated grouping is computed incrementally, this method is no longer used to group the tree
+    *       table view
+    */
+   @Deprecated
    protected Map groupByFunction(List<TreeItem<S>> items, TreeTableColumn<S, ?> column)
    {
-      Map<Object, List<TreeItem<S>>> map = new HashMap<>();
-      for (TreeItem<S> child : items)
-      {
-         Object key = column.getCellData(child);
-         map.computeIfAbsent(key, k -> new ArrayList<>());
-         map.get(key).add(child);
-      }
-      return map;
+      return TreeTableGroupIndex.groupBy(items, column);
    }
 
-   /*
-    * this method is used to update tree items and set the new root after grouping the data model
-    */
-   private void buildGroupedRoot(Map<?, ?> groupedItems, RecursiveTreeItem parent, int groupIndex)
+   private void disposeGroupIndex()
    {
-      boolean setRoot = false;
-      if (parent == null)
-      {
-         parent = new RecursiveTreeItem<>(new RecursiveTreeObject(), RecursiveTreeObject::getChildren);
-         setRoot = true;
-      }
-
-      for (Map.Entry<?, ?> entry : groupedItems.entrySet())
-      {
-         Object key = entry.getKey();
-         RecursiveTreeObject groupItem = new RecursiveTreeObject<>();
-         groupItem.setGroupedValue(key);
-         groupItem.setGroupedColumn(groupOrder.get(groupIndex));
-
-         RecursiveTreeItem node = new RecursiveTreeItem<>(groupItem, RecursiveTreeObject::getChildren);
-         // TODO: need to be removed once the selection issue is fixed
-         node.expandedProperty().addListener((o, oldVal, newVal) ->
-         {
-            getSelectionModel().clearSelection();
-         });
-
-         parent.originalItems.add(node);
-         parent.getChildren().add(node);
-
-         Object children = entry.getValue();
-         if (children instanceof List)
-         {
-            node.originalItems.addAll((List) children);
-            node.getChildren().addAll((List) children);
-         }
-         else if (children instanceof Map)
-         {
-            buildGroupedRoot((Map) children, node, groupIndex + 1);
-         }
-         groupItem.setChildren(node.getChildren());
-         if (groupedRootConsumer != null)
-         {
-            groupedRootConsumer.accept(key, groupItem);
-         }
-      }
-
-      // update ui
-      if (setRoot)
+      if (groupIndex != null)
       {
-         final RecursiveTreeItem<S> newParent = parent;
-         JFXUtilities.runInFX(() ->
-         {
-            ArrayList<TreeTableColumn<S, ?>> sortOrder = new ArrayList<>();
-            sortOrder.addAll(getSortOrder());
-            internalSetRoot = true;
-            setRoot(newParent);
-            internalSetRoot = false;
-            getSortOrder().addAll(sortOrder);
-            getSelectionModel().select(0);
-         });
+         groupIndex.dispose();
+         groupIndex = null;
       }
    }
 
@@ -459,22 +398,55 @@ public class JFXTreeTableView<S extends RecursiveTreeObject<S>> extends TreeTabl
       });
    }
 
-   private Runnable filterRunnable = () ->
+   /**
+    * incremented on every predicate change, a filtering run is cancelled once a newer one is requested
+    */
+   private final AtomicLong filterGeneration = new AtomicLong();
+
+   /**
+    * set while a progress update is waiting to be published on the FX thread
+    */
+   private final AtomicBoolean filterProgressUpdateScheduled = new AtomicBoolean(false);
+   private volatile double pendingFilterProgress = 0;
+
+   private void runFilter(long generation)
    {
       if (originalRoot == null)
       {
          originalRoot = getRoot();
       }
-      // filter the ungrouped root
-      ((RecursiveTreeItem) originalRoot).setPredicate(getPredicate());
-      // regroup the data
-      reGroup();
+      final BooleanSupplier cancelled = () -> generation != filterGeneration.get();
+      publishFilterProgress(0);
+      // filter the ungrouped root, the grouping index is updated incrementally
+      final int itemsCount = ((RecursiveTreeItem<S>) originalRoot).filter(getPredicate(), getFilterExecutor(), cancelled, this::publishFilterProgress);
+      if (itemsCount < 0)
+      {
+         return;
+      }
       Platform.runLater(() ->
       {
+         if (cancelled.getAsBoolean())
+         {
+            return;
+         }
          getSelectionModel().select(0);
-         setCurrentItemsCount(count(getRoot()));
+         filterProgress.set(1);
+         setCurrentItemsCount(itemsCount);
       });
-   };
+   }
+
+   private void publishFilterProgress(double progress)
+   {
+      pendingFilterProgress = progress;
+      if (filterProgressUpdateScheduled.compareAndSet(false, true))
+      {
+         Platform.runLater(() ->
+         {
+            filterProgressUpdateScheduled.set(false);
+            filterProgress.set(pendingFilterProgress);
+         });
+      }
+   }
 
    private ScheduledFuture<?> task;
 
@@ -483,20 +455,40 @@ public class JFXTreeTableView<S extends RecursiveTreeObject<S>> extends TreeTabl
     */
    private void filter(Predicate<TreeItem<S>> predicate)
    {
+      final long generation = filterGeneration.incrementAndGet();
       if (task != null)
       {
          task.cancel(false);
       }
-      task = threadPool.schedule(filterRunnable, 200, TimeUnit.MILLISECONDS);
+      task = threadPool.schedule(() -> runFilter(generation), 200, TimeUnit.MILLISECONDS);
    }
 
+   /**
+    * re-evaluates the group of every item, only the items whose grouped values changed are moved
+    * between groups. It should be called after editing grouped values of the data model.
+    */
    public void reGroup()
    {
-      if (!groupOrder.isEmpty())
+      try
+      {
+         lock.lock();
+         if (groupOrder.isEmpty())
+         {
+            return;
+         }
+         if (groupIndex != null && groupIndex.getSource() == originalRoot && groupIndex.getColumns().equals(groupOrder))
+         {
+            final TreeTableGroupIndex<S> index = groupIndex;
+            JFXUtilities.runInFX(index::refresh);
+         }
+         else
+         {
+            buildGroupIndex(new ArrayList<>(groupOrder));
+         }
+      }
+      finally
       {
-         ArrayList<TreeTableColumn<S, ?>> tempGroups = new ArrayList<>(groupOrder);
-         groupOrder.clear();
-         group(tempGroups.toArray(new TreeTableColumn[0]));
+         lock.unlock();
       }
    }
 
@@ -517,8 +509,43 @@ public class JFXTreeTableView<S extends RecursiveTreeObject<S>> extends TreeTabl
       this.predicateProperty().set(predicate);
    }
 
+   /**
+    * the fork join pool used to evaluate the predicate over chunks of tree items, the predicate must be
+    * thread safe unless a single threaded pool is used
+    */
+   private ObjectProperty<ForkJoinPool> filterExecutor = new SimpleObjectProperty<>(ForkJoinPool.commonPool());
+
+   public final ObjectProperty<ForkJoinPool> filterExecutorProperty()
+   {
+      return this.filterExecutor;
+   }
+
+   public final ForkJoinPool getFilterExecutor()
+   {
+      return this.filterExecutorProperty().get();
+   }
+
+   public final void setFilterExecutor(final ForkJoinPool filterExecutor)
+   {
+      this.filterExecutorProperty().set(filterExecutor);
+   }
+
+   /**
+    * progress of the current filtering run, from 0 to 1
+    */
+   private ReadOnlyDoubleWrapper filterProgress = new ReadOnlyDoubleWrapper(1);
+
+   public final ReadOnlyDoubleProperty filterProgressProperty()
+   {
+      return this.filterProgress.getReadOnlyProperty();
+   }
+
+   public final double getFilterProgress()
+   {
+      return this.filterProgress.get();
+   }
+
    private IntegerProperty currentItemsCount = new SimpleIntegerProperty(0);
-   private Map<Object, Map<Object, ?>> groups;
 
    /**
     * @return the initial tree items count ( add / remove items should be handled manually for now )
@@ -0,0 +1,518 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.jfoenix.controls;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.WeakListChangeListener;
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.control.ScrollPane;
+import javafx.util.Callback;
+
+/**
+ * JFXVirtualMasonryPane is a {@link JFXMasonryPane} that displays the items of an
+ * {@link ObservableList} using the cells created by its cell factory, similar to
+ * {@link javafx.scene.control.ListView}.
+ * <p>
+ * The grid area of every item is computed, however cells are only created for the items
+ * intersecting the viewport of the enclosing {@link ScrollPane} (or {@link JFXScrollPane}), cells
+ * of the items scrolled out of the viewport are reused for other items. The children of the pane are
+ * managed by the pane and must not be modified.
+ * <p>
+ * <b>Note:</b> the grid areas are measured using a single cell, so the size of a cell must only
+ * depend on its item. When the size of an item changes {@link #refresh()} must be called. Rows are
+ * not limited by default, layout modes that don't support incremental placement are replaced by
+ * {@link LayoutMode#MASONRY}.
+ */
+public class JFXVirtualMasonryPane<T> extends JFXMasonryPane
+{
+
+   private boolean performingLayout = false;
+
+   // grid areas of the placed items stored as (row, column, columns, rows), row is -1 if the item is hidden
+   private int[] areas = new int[64];
+   private int placedCount = 0;
+   private LayoutMode.Placement placement;
+   private LayoutMode placementMode;
+   private int placementColumns = -1;
+   private double contentHeight = -1;
+
+   // indices of the placed items grouped by their first grid row
+   private int[][] rowItems = new int[16][];
+   private int[] rowItemsCount = new int[16];
+   private int rowCount = 0;
+   private int maxRowSpan = 1;
+
+   private final Map<Integer, JFXMasonryCell<T>> cells = new HashMap<>();
+   private final Deque<JFXMasonryCell<T>> pile = new ArrayDeque<>();
+   private final BitSet visibleItems = new BitSet();
+   private JFXMasonryCell<T> measureCell;
+
+   // the scroll pane child holding the pane, cells are only created for the items inside of it
+   private Node viewport;
+   private final InvalidationListener viewportListener = observable -> updateCells();
+   private final InvalidationListener transformListener = observable ->
+   {
+      // validate the transform to be notified when the pane is scrolled again
+      getLocalToSceneTransform();
+      updateCells();
+   };
+
+   private final ListChangeListener<T> itemsListener = change ->
+   {
+      boolean appended = true;
+      while (change.next())
+      {
+         if (!change.wasAdded() || change.wasRemoved() || change.getTo() != change.getList().size())
+         {
+            appended = false;
+         }
+      }
+      // appended items are placed after the current ones
+      if (!appended)
+      {
+         clearPlacement();
+      }
+      requestLayout();
+   };
+   private final WeakListChangeListener<T> weakItemsListener = new WeakListChangeListener<>(itemsListener);
+
+   /**
+    * Constructs a new JFXVirtualMasonryPane
+    */
+   public JFXVirtualMasonryPane()
+   {
+      this(FXCollections.observableArrayList());
+   }
+
+   /**
+    * Constructs a new JFXVirtualMasonryPane that displays the specified items
+    *
+    * @param items
+    */
+   public JFXVirtualMasonryPane(ObservableList<T> items)
+   {
+      initialize();
+      setLimitRow(-1);
+      setItems(items);
+      layoutModeProperty().addListener(observable -> requestLayout());
+      localToSceneTransformProperty().addListener(transformListener);
+      parentProperty().addListener(observable -> updateViewport());
+      // the scroll pane skin adds the pane to its viewport before adding the viewport to the scroll
+      // pane, so the ancestors are complete once the pane is in the scene
+      sceneProperty().addListener(observable -> updateViewport());
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   protected void layoutChildren()
+   {
+      performingLayout = true;
+      final int col = computeColumns();
+      if (placement == null || placementMode != getLayoutMode() || placementColumns != col)
+      {
+         clearPlacement();
+         placementMode = getLayoutMode();
+         placementColumns = col;
+         final int row = getLimitRow() == -1 ? Integer.MAX_VALUE : getLimitRow();
+         placement = placementMode.createPlacement(row, col);
+         if (placement == null)
+         {
+            final LayoutMode masonry = LayoutMode.MASONRY;
+            placement = masonry.createPlacement(row, col);
+         }
+      }
+      placeItems();
+      performingLayout = false;
+      updateCells();
+   }
+
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void requestLayout()
+   {
+      if (performingLayout)
+      {
+         return;
+      }
+      super.requestLayout();
+   }
+
+   /**
+    * recompute the grid areas of all items and update the displayed cells
+    */
+   public void refresh()
+   {
+      clearPlacement();
+      requestLayout();
+   }
+
+   private void clearPlacement()
+   {
+      placement = null;
+      placedCount = 0;
+      contentHeight = -1;
+      Arrays.fill(rowItemsCount, 0, rowCount, 0);
+      rowCount = 0;
+      maxRowSpan = 1;
+      // cells are bound again to their items once the items are placed
+      for (Iterator<JFXMasonryCell<T>> iterator = cells.values().iterator(); iterator.hasNext(); )
+      {
+         recycleCell(iterator.next());
+         iterator.remove();
+      }
+   }
+
+   /**
+    * place the items that are not placed yet
+    */
+   private void placeItems()
+   {
+      final List<T> items = getItems();
+      final int size = items == null ? 0 : items.size();
+      if (placedCount >= size)
+      {
+         return;
+      }
+      if (areas.length < size * 4)
+      {
+         areas = Arrays.copyOf(areas, Math.max(size * 4, areas.length * 2));
+      }
+      final JFXMasonryCell<T> cell = getMeasureCell();
+      for (int i = placedCount; i < size; i++)
+      {
+         cell.updateCell(i, items.get(i), false);
+         cell.applyCss();
+         final BoundingBox box = placement.place(cell, getCellWidth(), getCellHeight(), getHSpacing(), getVSpacing());
+         if (box == null)
+         {
+            areas[i * 4] = -1;
+            continue;
+         }
+         final int row = (int) box.getMinX();
+         areas[i * 4] = row;
+         areas[i * 4 + 1] = (int) box.getMinY();
+         areas[i * 4 + 2] = (int) box.getWidth();
+         areas[i * 4 + 3] = (int) box.getHeight();
+         addRowItem(row, i);
+         maxRowSpan = Math.max(maxRowSpan, areas[i * 4 + 3]);
+         contentHeight = Math.max(contentHeight, getAreaY(i) + getAreaHeight(i));
+      }
+      cell.updateCell(-1, null, true);
+      placedCount = size;
+      if (contentHeight != -1)
+      {
+         setPrefHeight(contentHeight + snappedBottomInset());
+      }
+   }
+
+   private void addRowItem(int row, int index)
+   {
+      if (row >= rowItems.length)
+      {
+         final int length = Math.max(row + 1, rowItems.length * 2);
+         rowItems = Arrays.copyOf(rowItems, length);
+         rowItemsCount = Arrays.copyOf(rowItemsCount, length);
+      }
+      int[] indices = rowItems[row];
+      if (indices == null)
+      {
+         indices = rowItems[row] = new int[4];
+      }
+      else if (rowItemsCount[row] == indices.length)
+      {
+         indices = rowItems[row] = Arrays.copyOf(indices, indices.length * 2);
+      }
+      indices[rowItemsCount[row]++] = index;
+      rowCount = Math.max(rowCount, row + 1);
+   }
+
+   /**
+    * bind cells to the placed items intersecting the viewport, and recycle the cells of the other items
+    */
+   private void updateCells()
+   {
+      if (performingLayout)
+      {
+         return;
+      }
+      performingLayout = true;
+      final List<T> items = getItems();
+      final Bounds visibleBounds = getVisibleBounds();
+      final double rowHeight = getCellHeight() + getVSpacing();
+      // items are looked up by their first row, an item spans at most maxRowSpan rows
+      final int firstRow = Math.max(0, (int) Math.floor((visibleBounds.getMinY() - snappedTopInset()) / rowHeight) - maxRowSpan + 1);
+      final int lastRow = Math.min(rowCount - 1, (int) Math.floor((visibleBounds.getMaxY() - snappedTopInset()) / rowHeight));
+      visibleItems.clear();
+      for (int row = firstRow; row <= lastRow; row++)
+      {
+         final int[] indices = rowItems[row];
+         for (int i = 0; i < rowItemsCount[row]; i++)
+         {
+            final int index = indices[i];
+            final double y = getAreaY(index);
+            final double x = getAreaX(index);
+            if (y < visibleBounds.getMaxY() && y + getAreaHeight(index) > visibleBounds.getMinY()
+                && x < visibleBounds.getMaxX() && x + getAreaWidth(index) > visibleBounds.getMinX())
+            {
+               visibleItems.set(index);
+            }
+         }
+      }
+
+      for (Iterator<Map.Entry<Integer, JFXMasonryCell<T>>> iterator = cells.entrySet().iterator(); iterator.hasNext(); )
+      {
+         final Map.Entry<Integer, JFXMasonryCell<T>> entry = iterator.next();
+         if (!visibleItems.get(entry.getKey()))
+         {
+            recycleCell(entry.getValue());
+            iterator.remove();
+         }
+      }
+      for (int index = visibleItems.nextSetBit(0); index >= 0; index = visibleItems.nextSetBit(index + 1))
+      {
+         JFXMasonryCell<T> cell = cells.get(index);
+         if (cell == null)
+         {
+            cell = createCell();
+            cell.updateCell(index, items.get(index), false);
+            cell.setVisible(true);
+            cells.put(index, cell);
+         }
+         cell.resizeRelocate(getAreaX(index), getAreaY(index), getAreaWidth(index), getAreaHeight(index));
+      }
+      performingLayout = false;
+   }
+
+   /**
+    * @return the bounds of the pane inside the scroll pane viewport, in the pane coordinates
+    */
+   private Bounds getVisibleBounds()
+   {
+      final Bounds layoutBounds = getLayoutBounds();
+      if (viewport == null || viewport.getScene() == null || getScene() == null)
+      {
+         return layoutBounds;
+      }
+      // validate the transform to be notified when the pane is scrolled
+      getLocalToSceneTransform();
+      final Bounds viewportBounds = sceneToLocal(viewport.localToScene(viewport.getLayoutBounds()));
+      // cells are created one row ahead to avoid showing empty areas while scrolling
+      final double margin = getCellHeight() + getVSpacing();
+      return new BoundingBox(viewportBounds.getMinX(),
+                             viewportBounds.getMinY() - margin,
+                             viewportBounds.getWidth(),
+                             viewportBounds.getHeight() + 2 * margin);
+   }
+
+   private void updateViewport()
+   {
+      if (viewport != null)
+      {
+         viewport.layoutBoundsProperty().removeListener(viewportListener);
+      }
+      viewport = null;
+      Node node = this;
+      for (Parent parent = getParent(); parent != null; node = parent, parent = parent.getParent())
+      {
+         if (parent instanceof ScrollPane)
+         {
+            viewport = node;
+            viewport.layoutBoundsProperty().addListener(viewportListener);
+            break;
+         }
+      }
+      requestLayout();
+   }
+
+   private JFXMasonryCell<T> createCell()
+   {
+      JFXMasonryCell<T> cell = pile.poll();
+      if (cell == null)
+      {
+         cell = getCellFactory() == null ? new JFXMasonryCell<>() : getCellFactory().call(this);
+         cell.setManaged(false);
+         getChildren().add(cell);
+         cell.applyCss();
+      }
+      return cell;
+   }
+
+   private void recycleCell(JFXMasonryCell<T> cell)
+   {
+      cell.setVisible(false);
+      cell.updateCell(-1, null, true);
+      pile.push(cell);
+   }
+
+   private JFXMasonryCell<T> getMeasureCell()
+   {
+      if (measureCell == null)
+      {
+         measureCell = getCellFactory() == null ? new JFXMasonryCell<>() : getCellFactory().call(this);
+         measureCell.setManaged(false);
+         measureCell.setVisible(false);
+         getChildren().add(measureCell);
+      }
+      return measureCell;
+   }
+
+   /**
+    * remove all cells, they are created again using the current cell factory
+    */
+   private void clearCells()
+   {
+      clearPlacement();
+      getChildren().removeAll(pile);
+      pile.clear();
+      if (measureCell != null)
+      {
+         getChildren().remove(measureCell);
+         measureCell = null;
+      }
+      requestLayout();
+   }
+
+   private double getAreaX(int index)
+   {
+      return areas[index * 4 + 1] * (getCellWidth() + getHSpacing()) + snappedLeftInset();
+   }
+
+   private double getAreaY(int index)
+   {
+      return areas[index * 4] * (getCellHeight() + getVSpacing()) + snappedTopInset();
+   }
+
+   private double getAreaWidth(int index)
+   {
+      return areas[index * 4 + 2] * getCellWidth() + (areas[index * 4 + 2] - 1) * getHSpacing();
+   }
+
+   private double getAreaHeight(int index)
+   {
+      return areas[index * 4 + 3] * getCellHeight() + (areas[index * 4 + 3] - 1) * getVSpacing();
+   }
+
+   /***************************************************************************
+    * * Properties * *
+    **************************************************************************/
+
+   /**
+    * the items displayed by the pane
+    */
+   private ObjectProperty<ObservableList<T>> items = new SimpleObjectProperty<ObservableList<T>>()
+   {
+      private ObservableList<T> oldItems;
+
+      @Override
+      protected void invalidated()
+      {
+         if (oldItems != null)
+         {
+            oldItems.removeListener(weakItemsListener);
+         }
+         oldItems = get();
+         if (oldItems != null)
+         {
+            oldItems.addListener(weakItemsListener);
+         }
+         refresh();
+      }
+   };
+
+   public final ObjectProperty<ObservableList<T>> itemsProperty()
+   {
+      return this.items;
+   }
+
+   public final ObservableList<T> getItems()
+   {
+      return this.itemsProperty().get();
+   }
+
+   public final void setItems(final ObservableList<T> items)
+   {
+      this.itemsProperty().set(items);
+   }
+
+   /**
+    * the cell factory used to create the cells displaying the items, by default {@link JFXMasonryCell}
+    * is used
+    */
+   private ObjectProperty<Callback<JFXVirtualMasonryPane<T>, JFXMasonryCell<T>>> cellFactory = new SimpleObjectProperty<Callback<JFXVirtualMasonryPane<T>, JFXMasonryCell<T>>>()
+   {
+      @Override
+      protected void invalidated()
+      {
+         clearCells();
+      }
+   };
+
+   public final ObjectProperty<Callback<JFXVirtualMasonryPane<T>, JFXMasonryCell<T>>> cellFactoryProperty()
+   {
+      return this.cellFactory;
+   }
+
+   public final Callback<JFXVirtualMasonryPane<T>, JFXMasonryCell<T>> getCellFactory()
+   {
+      return this.cellFactoryProperty().get();
+   }
+
+   public final void setCellFactory(final Callback<JFXVirtualMasonryPane<T>, JFXMasonryCell<T>> cellFactory)
+   {
+      this.cellFactoryProperty().set(cellFactory);
+   }
+
+   /***************************************************************************
+    * * Stylesheet Handling * *
+    **************************************************************************/
+
+   /**
+    * Initialize the style class to 'jfx-virtual-masonry-pane'.
+    * <p>
+    * This is the selector class from which CSS can be used to style this control.
+    */
+   private static final String DEFAULT_STYLE_CLASS = "jfx-virtual-masonry-pane";
+
+   private void initialize()
+   {
+      this.getStyleClass().add(DEFAULT_STYLE_CLASS);
+   }
+}
@@ -20,8 +20,19 @@
 package com.jfoenix.controls;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleConsumer;
 import java.util.function.Predicate;
 
 import com.jfoenix.controls.datamodels.treetable.RecursiveTreeObject;
@@ -70,6 +81,22 @@ public class RecursiveTreeItem<T extends RecursiveTreeObject<T>> extends TreeIte
     */
    FilteredList<TreeItem<T>> filteredItems;
 
+   /**
+    * whether the filtered items are mirrored into the children of this tree item, it's disabled
+    * while the items are displayed by the group nodes of {@link JFXTreeTableView}
+    */
+   volatile boolean mirrorFilteredItems = true;
+
+   /**
+    * number of children evaluated sequentially by a filtering task
+    */
+   private static final int FILTER_CHUNK_SIZE = 512;
+
+   /**
+    * set while the predicate is updated by a filtering pass
+    */
+   private boolean updatingPredicate = false;
+
    /***************************************************************************
     * * Constructors * *
     **************************************************************************/
@@ -138,42 +165,280 @@ public class RecursiveTreeItem<T extends RecursiveTreeObject<T>> extends TreeIte
 
       predicate.addListener(observable ->
       {
-         filteredItems.setPredicate(child ->
+         if (!updatingPredicate)
          {
-            // Set the predicate of child items to force filtering
-            if (child instanceof RecursiveTreeItem)
-            {
-               if (!((RecursiveTreeItem) child).originalItems.isEmpty())
-               {
-                  RecursiveTreeItem<T> filterableChild = (RecursiveTreeItem<T>) child;
-                  filterableChild.setPredicate(predicate.get());
-               }
-            }
-            // If there is no predicate, keep this tree item
-            if (predicate.get() == null)
+            filter(predicate.get());
+         }
+      });
+   }
+
+   /**
+    * filters the whole subtree of this tree item using the common fork join pool
+    *
+    * @param predicate used to filter the subtree
+    */
+   private void filter(Predicate<TreeItem<T>> predicate)
+   {
+      filter(predicate, ForkJoinPool.commonPool(), () -> false, null);
+   }
+
+   /**
+    * filters the whole subtree of this tree item. The predicate is evaluated over chunks of children in
+    * parallel using the specified pool into a visibility bitmap per tree item, then the result is
+    * applied in a single FX pulse using one children update per tree item whose visible children
+    * changed.
+    * The filtering is cancelled cooperatively at chunk boundaries, in that case nothing is applied.
+    *
+    * @param predicate used to filter the subtree
+    * @param pool      used to evaluate the predicate
+    * @param cancelled checked at chunk boundaries to stop the filtering
+    * @param progress  receives the ratio of top level items filtered so far, can be null
+    * @return the number of visible items in the subtree, or -1 if the filtering was cancelled
+    */
+   int filter(Predicate<TreeItem<T>> predicate, ForkJoinPool pool, BooleanSupplier cancelled, DoubleConsumer progress)
+   {
+      final FilterContext<T> context = new FilterContext<>(predicate, cancelled, progress, originalItems.size());
+      pool.invoke(ForkJoinTask.adapt(() -> computeVisibility(context, true)));
+      if (cancelled.getAsBoolean())
+      {
+         return -1;
+      }
+      JFXUtilities.runInFXAndWait(() ->
+      {
+         if (cancelled.getAsBoolean())
+         {
+            return;
+         }
+         for (VisibilityUpdate<T> update : context.updates)
+         {
+            update.treeItem.applyVisibility(update);
+         }
+      });
+      return cancelled.getAsBoolean() ? -1 : context.visibleCount.get();
+   }
+
+   /**
+    * computes the visibility of the children of this tree item, must be called inside a fork join pool
+    *
+    * @return true if any child is visible
+    */
+   private boolean computeVisibility(FilterContext<T> context, boolean topLevel)
+   {
+      final List<TreeItem<T>> snapshot = new ArrayList<>(originalItems);
+      final boolean[] visible = new boolean[snapshot.size()];
+      new VisibilityTask<>(context, snapshot, visible, 0, snapshot.size(), topLevel).invoke();
+      final BitSet visibility = new BitSet(snapshot.size());
+      for (int i = 0; i < visible.length; i++)
+      {
+         if (visible[i])
+         {
+            visibility.set(i);
+         }
+      }
+      context.updates.add(new VisibilityUpdate<>(this, snapshot, visibility, context.predicate));
+      return !visibility.isEmpty();
+   }
+
+   /**
+    * evaluates the visibility of a range of children, ranges bigger than {@link #FILTER_CHUNK_SIZE}
+    * are split and evaluated in parallel
+    */
+   private static final class VisibilityTask<T extends RecursiveTreeObject<T>> extends RecursiveAction
+   {
+      private static final long serialVersionUID = 1L;
+      private final FilterContext<T> context;
+      private final List<TreeItem<T>> snapshot;
+      private final boolean[] visible;
+      private final int from;
+      private final int to;
+      private final boolean topLevel;
+
+      VisibilityTask(FilterContext<T> context, List<TreeItem<T>> snapshot, boolean[] visible, int from, int to, boolean topLevel)
+      {
+         this.context = context;
+         this.snapshot = snapshot;
+         this.visible = visible;
+         this.from = from;
+         this.to = to;
+         this.topLevel = topLevel;
+      }
+
+      @Override
+      protected void compute()
+      {
+         if (to - from > FILTER_CHUNK_SIZE)
+         {
+            final int middle = (from + to) >>> 1;
+            invokeAll(new VisibilityTask<>(context, snapshot, visible, from, middle, topLevel),
+                      new VisibilityTask<>(context, snapshot, visible, middle, to, topLevel));
+            return;
+         }
+         // chunk boundary
+         if (context.cancelled.getAsBoolean())
+         {
+            return;
+         }
+         int visibleCount = 0;
+         for (int i = from; i < to; i++)
+         {
+            final TreeItem<T> child = snapshot.get(i);
+            boolean hasVisibleChildren;
+            if (child instanceof RecursiveTreeItem && !((RecursiveTreeItem<T>) child).originalItems.isEmpty())
             {
-               return true;
+               // filter the child items as well
+               hasVisibleChildren = ((RecursiveTreeItem<T>) child).computeVisibility(context, false);
             }
-            // If there are children, keep this tree item
-            if (child.getChildren().size() > 0)
+            else
             {
-               return true;
+               hasVisibleChildren = !child.getChildren().isEmpty();
             }
-            // If its a group node keep this item if it has children
-            if (child.getValue() instanceof RecursiveTreeObject && child.getValue().getClass() == RecursiveTreeObject.class)
+            visible[i] = isVisible(child, hasVisibleChildren, context.predicate);
+            if (visible[i] && !isGroupItem(child))
             {
-               return child.getChildren().size() != 0;
+               visibleCount++;
             }
-            // Otherwise ask the TreeItemPredicate
-            return predicate.get().test(child);
-         });
-      });
+         }
+         context.visibleCount.addAndGet(visibleCount);
+         if (topLevel)
+         {
+            context.publishProgress(to - from);
+         }
+      }
+   }
+
+   /**
+    * state shared by the tasks of a filtering pass
+    */
+   private static final class FilterContext<T extends RecursiveTreeObject<T>>
+   {
+      final Predicate<TreeItem<T>> predicate;
+      final BooleanSupplier cancelled;
+      final DoubleConsumer progress;
+      final int topLevelCount;
+      final AtomicInteger topLevelFiltered = new AtomicInteger();
+      final AtomicInteger visibleCount = new AtomicInteger();
+      final Queue<VisibilityUpdate<T>> updates = new ConcurrentLinkedQueue<>();
+
+      FilterContext(Predicate<TreeItem<T>> predicate, BooleanSupplier cancelled, DoubleConsumer progress, int topLevelCount)
+      {
+         this.predicate = predicate;
+         this.cancelled = cancelled;
+         this.progress = progress;
+         this.topLevelCount = topLevelCount;
+      }
+
+      void publishProgress(int filtered)
+      {
+         final int total = topLevelFiltered.addAndGet(filtered);
+         if (progress != null)
+         {
+            progress.accept((double) total / topLevelCount);
+         }
+      }
+   }
+
+   private static boolean isGroupItem(TreeItem<?> item)
+   {
+      return item.getValue() instanceof RecursiveTreeObject && item.getValue().getClass() == RecursiveTreeObject.class;
+   }
+
+   private static <T> boolean isVisible(TreeItem<T> child, boolean hasVisibleChildren, Predicate<TreeItem<T>> predicate)
+   {
+      // If there is no predicate, keep this tree item
+      if (predicate == null)
+      {
+         return true;
+      }
+      // If there are children, keep this tree item
+      if (hasVisibleChildren)
+      {
+         return true;
+      }
+      // If its a group node keep this item only if it has children
+      if (isGroupItem(child))
+      {
+         return false;
+      }
+      // Otherwise ask the TreeItemPredicate
+      return predicate.test(child);
+   }
 
-      this.filteredItems.predicateProperty().addListener(observable -> JFXUtilities.runInFXAndWait(() ->
+   /**
+    * applies a computed visibility bitmap, must be called on the FX thread
+    */
+   private void applyVisibility(VisibilityUpdate<T> update)
+   {
+      updatingPredicate = true;
+      setPredicate(update.predicate);
+      updatingPredicate = false;
+      if (!isVisibilityChanged(update))
+      {
+         return;
+      }
+      final List<TreeItem<T>> snapshot = update.snapshot;
+      final Map<TreeItem<T>, Boolean> visibilityMap = new IdentityHashMap<>(snapshot.size());
+      for (int i = 0; i < snapshot.size(); i++)
+      {
+         visibilityMap.put(snapshot.get(i), update.visibility.get(i));
+      }
+      final Predicate<TreeItem<T>> predicate = update.predicate;
+      filteredItems.setPredicate(child ->
+      {
+         Boolean visible = visibilityMap.get(child);
+         // items added after the visibility was computed are evaluated directly
+         return visible != null ? visible : isVisible(child, !child.getChildren().isEmpty(), predicate);
+      });
+      if (mirrorFilteredItems)
       {
-         getChildren().clear();
          getChildren().setAll(filteredItems);
-      }));
+      }
+   }
+
+   private boolean isVisibilityChanged(VisibilityUpdate<T> update)
+   {
+      final List<TreeItem<T>> snapshot = update.snapshot;
+      if (snapshot.size() != originalItems.size())
+      {
+         return true;
+      }
+      int filteredIndex = 0;
+      for (int i = 0; i < snapshot.size(); i++)
+      {
+         final TreeItem<T> child = snapshot.get(i);
+         if (child != originalItems.get(i))
+         {
+            return true;
+         }
+         boolean visible = filteredIndex < filteredItems.size() && filteredItems.get(filteredIndex) == child;
+         if (visible)
+         {
+            filteredIndex++;
+         }
+         if (visible != update.visibility.get(i))
+         {
+            return true;
+         }
+      }
+      return filteredIndex != filteredItems.size();
+   }
+
+   /**
+    * visibility of the original items of a tree item, computed off the FX thread
+    */
+   private static final class VisibilityUpdate<T extends RecursiveTreeObject<T>>
+   {
+      final RecursiveTreeItem<T> treeItem;
+      final List<TreeItem<T>> snapshot;
+      final BitSet visibility;
+      final Predicate<TreeItem<T>> predicate;
+
+      VisibilityUpdate(RecursiveTreeItem<T> treeItem, List<TreeItem<T>> snapshot, BitSet visibility, Predicate<TreeItem<T>> predicate)
+      {
+         this.treeItem = treeItem;
+         this.snapshot = snapshot;
+         this.visibility = visibility;
+         this.predicate = predicate;
+      }
    }
 
    private void addChildrenListener(RecursiveTreeObject<T> value)
@@ -212,11 +477,17 @@ public class RecursiveTreeItem<T extends RecursiveTreeObject<T>> extends TreeIte
                if (originalItems.size() == removedItems.size())
                {
                   originalItems.clear();
-                  getChildren().clear();
+                  if (mirrorFilteredItems)
+                  {
+                     getChildren().clear();
+                  }
                }
                else
                {
-                  getChildren().removeAll(removedItems);
+                  if (mirrorFilteredItems)
+                  {
+                     getChildren().removeAll(removedItems);
+                  }
                   originalItems.removeAll(removedItems);
                }
             }
@@ -229,7 +500,10 @@ public class RecursiveTreeItem<T extends RecursiveTreeObject<T>> extends TreeIte
                   addedItems.add(newTreeItem);
                   itemsMap.put(newChild, newTreeItem);
                }
-               getChildren().addAll(addedItems);
+               if (mirrorFilteredItems)
+               {
+                  getChildren().addAll(addedItems);
+               }
                originalItems.addAll(addedItems);
             }
          }
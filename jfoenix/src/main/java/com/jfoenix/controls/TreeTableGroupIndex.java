@@ -0,0 +1,350 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.jfoenix.controls;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+
+import com.jfoenix.controls.datamodels.treetable.RecursiveTreeObject;
+import com.jfoenix.utils.JFXUtilities;
+
+import javafx.collections.ListChangeListener;
+import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeTableColumn;
+
+/**
+ * Incremental grouping index used by {@link JFXTreeTableView}.
+ * <p>
+ * The index listens to the filtered items of the ungrouped root and moves only the affected leaves
+ * between group buckets. Group nodes are created lazily when the first leaf lands in them and are
+ * destroyed once they become empty, all other group nodes are reused so their expansion state is
+ * preserved.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+final class TreeTableGroupIndex<S extends RecursiveTreeObject<S>>
+{
+   private final JFXTreeTableView<S> treeTableView;
+   private final RecursiveTreeItem<S> source;
+   private final List<TreeTableColumn<S, ?>> columns;
+   private final BiFunction<TreeTableColumn<S, ?>, TreeItem<S>, Object> keyFunction;
+   private final Executor updateExecutor;
+   private final GroupNode root;
+
+   /**
+    * map each leaf to the leaf-level group that currently holds it
+    */
+   private final Map<TreeItem<S>, GroupNode> leafBuckets = new HashMap<>();
+
+   /**
+    * pending leaf updates (leaf -> present in source), coalesced until applied on the FX thread
+    */
+   private final Map<TreeItem<S>, Boolean> pendingUpdates = new LinkedHashMap<>();
+   private boolean applyScheduled = false;
+
+   private final ListChangeListener<TreeItem<S>> sourceListener = this::sourceChanged;
+
+   TreeTableGroupIndex(JFXTreeTableView<S> treeTableView, RecursiveTreeItem<S> source, List<TreeTableColumn<S, ?>> columns)
+   {
+      this(treeTableView, source, columns, TreeTableColumn::getCellData, JFXUtilities::runInFX);
+   }
+
+   /**
+    * @param treeTableView  the view showing the groups, or null if they are not shown
+    * @param keyFunction    returns the group key of a leaf for a grouped column
+    * @param updateExecutor applies the source changes, they must be applied on the FX thread while
+    *                       the groups are shown
+    */
+   TreeTableGroupIndex(JFXTreeTableView<S> treeTableView,
+                       RecursiveTreeItem<S> source,
+                       List<TreeTableColumn<S, ?>> columns,
+                       BiFunction<TreeTableColumn<S, ?>, TreeItem<S>, Object> keyFunction,
+                       Executor updateExecutor)
+   {
+      this.treeTableView = treeTableView;
+      this.source = source;
+      this.columns = new ArrayList<>(columns);
+      this.keyFunction = keyFunction;
+      this.updateExecutor = updateExecutor;
+      this.root = new GroupNode(null, null, new RecursiveTreeItem<>(new RecursiveTreeObject(), RecursiveTreeObject::getChildren));
+
+      // the leaves are displayed by the group nodes from now on
+      source.mirrorFilteredItems = false;
+      update(new ArrayList<>(source.filteredItems), new LinkedHashMap<>(), true);
+      source.filteredItems.addListener(sourceListener);
+   }
+
+   RecursiveTreeItem<S> getRoot()
+   {
+      return root.treeItem;
+   }
+
+   RecursiveTreeItem<S> getSource()
+   {
+      return source;
+   }
+
+   List<TreeTableColumn<S, ?>> getColumns()
+   {
+      return columns;
+   }
+
+   /**
+    * groups the specified leaves by their key for the specified column, the keys of a group level of
+    * the index are computed the same way
+    */
+   static <S extends RecursiveTreeObject<S>> Map<Object, List<TreeItem<S>>> groupBy(List<TreeItem<S>> leaves, TreeTableColumn<S, ?> column)
+   {
+      Map<Object, List<TreeItem<S>>> groups = new LinkedHashMap<>();
+      for (TreeItem<S> leaf : leaves)
+      {
+         groups.computeIfAbsent(column.getCellData(leaf), k -> new ArrayList<>()).add(leaf);
+      }
+      return groups;
+   }
+
+   /**
+    * stop listening to the source
+    */
+   void detach()
+   {
+      source.filteredItems.removeListener(sourceListener);
+      synchronized (pendingUpdates)
+      {
+         pendingUpdates.clear();
+      }
+   }
+
+   /**
+    * stop listening to the source and give its leaves back, must be called on the FX thread
+    */
+   void dispose()
+   {
+      detach();
+      source.mirrorFilteredItems = true;
+      source.getChildren().setAll(source.filteredItems);
+   }
+
+   /**
+    * re-evaluate the group keys of all leaves, moving only the leaves whose keys changed
+    */
+   void refresh()
+   {
+      update(new ArrayList<>(source.filteredItems), new LinkedHashMap<>(), true);
+   }
+
+   private void sourceChanged(ListChangeListener.Change<? extends TreeItem<S>> change)
+   {
+      synchronized (pendingUpdates)
+      {
+         while (change.next())
+         {
+            if (change.wasPermutated())
+            {
+               continue;
+            }
+            for (TreeItem<S> removed : change.getRemoved())
+            {
+               pendingUpdates.put(removed, false);
+            }
+            for (TreeItem<S> added : change.getAddedSubList())
+            {
+               pendingUpdates.put(added, true);
+            }
+         }
+         if (applyScheduled || pendingUpdates.isEmpty())
+         {
+            return;
+         }
+         applyScheduled = true;
+      }
+      updateExecutor.execute(this::applyPendingUpdates);
+   }
+
+   private void applyPendingUpdates()
+   {
+      List<TreeItem<S>> present = new ArrayList<>();
+      List<TreeItem<S>> absent = new ArrayList<>();
+      synchronized (pendingUpdates)
+      {
+         for (Map.Entry<TreeItem<S>, Boolean> entry : pendingUpdates.entrySet())
+         {
+            (entry.getValue() ? present : absent).add(entry.getKey());
+         }
+         pendingUpdates.clear();
+         applyScheduled = false;
+      }
+      Map<GroupNode, List<TreeItem<S>>> removals = new LinkedHashMap<>();
+      for (TreeItem<S> leaf : absent)
+      {
+         GroupNode bucket = leafBuckets.remove(leaf);
+         if (bucket != null)
+         {
+            removals.computeIfAbsent(bucket, k -> new ArrayList<>()).add(leaf);
+         }
+      }
+      update(present, removals, false);
+   }
+
+   /**
+    * move the specified leaves into the buckets matching their current keys
+    *
+    * @param leaves     the leaves present in the source
+    * @param removals   leaves already detached from their buckets, grouped by bucket
+    * @param pruneStale whether leaves of this index that are not in {@code leaves} must be removed
+    */
+   private void update(List<TreeItem<S>> leaves, Map<GroupNode, List<TreeItem<S>>> removals, boolean pruneStale)
+   {
+      Map<GroupNode, List<TreeItem<S>>> additions = new LinkedHashMap<>();
+      Set<TreeItem<S>> visited = pruneStale ? new HashSet<>(leaves) : null;
+      if (pruneStale)
+      {
+         leafBuckets.entrySet().removeIf(entry ->
+         {
+            if (visited.contains(entry.getKey()))
+            {
+               return false;
+            }
+            removals.computeIfAbsent(entry.getValue(), k -> new ArrayList<>()).add(entry.getKey());
+            return true;
+         });
+      }
+      for (TreeItem<S> leaf : leaves)
+      {
+         GroupNode current = leafBuckets.get(leaf);
+         GroupNode target = bucketOf(leaf);
+         if (current == target)
+         {
+            continue;
+         }
+         if (current != null)
+         {
+            removals.computeIfAbsent(current, k -> new ArrayList<>()).add(leaf);
+         }
+         additions.computeIfAbsent(target, k -> new ArrayList<>()).add(leaf);
+         leafBuckets.put(leaf, target);
+      }
+      // one children update per changed bucket
+      for (Map.Entry<GroupNode, List<TreeItem<S>>> entry : removals.entrySet())
+      {
+         RecursiveTreeItem<S> bucketItem = entry.getKey().treeItem;
+         Set<TreeItem<S>> removed = new HashSet<>(entry.getValue());
+         bucketItem.originalItems.removeAll(removed);
+         bucketItem.getChildren().removeAll(removed);
+      }
+      for (Map.Entry<GroupNode, List<TreeItem<S>>> entry : additions.entrySet())
+      {
+         RecursiveTreeItem<S> bucketItem = entry.getKey().treeItem;
+         bucketItem.originalItems.addAll(entry.getValue());
+         bucketItem.getChildren().addAll(entry.getValue());
+      }
+      // empty groups are destroyed only once the whole batch is applied
+      for (GroupNode bucket : removals.keySet())
+      {
+         prune(bucket);
+      }
+   }
+
+   /**
+    * find the leaf-level group of the specified leaf, lazily creating missing groups
+    */
+   private GroupNode bucketOf(TreeItem<S> leaf)
+   {
+      GroupNode node = root;
+      for (int level = 0; level < columns.size(); level++)
+      {
+         Object key = keyFunction.apply(columns.get(level), leaf);
+         GroupNode child = node.children.get(key);
+         if (child == null)
+         {
+            child = createGroup(node, key, level);
+         }
+         node = child;
+      }
+      return node;
+   }
+
+   private GroupNode createGroup(GroupNode parent, Object key, int level)
+   {
+      RecursiveTreeObject groupItem = new RecursiveTreeObject<>();
+      groupItem.setGroupedValue(key);
+      groupItem.setGroupedColumn(columns.get(level));
+
+      RecursiveTreeItem node = new RecursiveTreeItem<>(groupItem, RecursiveTreeObject::getChildren);
+      if (treeTableView != null)
+      {
+         // TODO: need to be removed once the selection issue is fixed
+         node.expandedProperty().addListener((o, oldVal, newVal) ->
+         {
+            treeTableView.getSelectionModel().clearSelection();
+         });
+      }
+      groupItem.setChildren(node.getChildren());
+
+      GroupNode group = new GroupNode(parent, key, node);
+      parent.children.put(key, group);
+      parent.treeItem.originalItems.add(node);
+      parent.treeItem.getChildren().add(node);
+      if (treeTableView != null && treeTableView.groupedRootConsumer != null)
+      {
+         treeTableView.groupedRootConsumer.accept(key, groupItem);
+      }
+      return group;
+   }
+
+   /**
+    * destroy the specified group and its ancestors if they are empty
+    */
+   private void prune(GroupNode group)
+   {
+      while (group.parent != null && group.treeItem.originalItems.isEmpty())
+      {
+         GroupNode parent = group.parent;
+         if (parent.children.get(group.key) == group)
+         {
+            parent.children.remove(group.key);
+         }
+         parent.treeItem.originalItems.remove(group.treeItem);
+         parent.treeItem.getChildren().remove(group.treeItem);
+         group = parent;
+      }
+   }
+
+   private final class GroupNode
+   {
+      final GroupNode parent;
+      final Object key;
+      final RecursiveTreeItem<S> treeItem;
+      final Map<Object, GroupNode> children = new LinkedHashMap<>();
+
+      GroupNode(GroupNode parent, Object key, RecursiveTreeItem<S> treeItem)
+      {
+         this.parent = parent;
+         this.key = key;
+         this.treeItem = treeItem;
+      }
+   }
+}
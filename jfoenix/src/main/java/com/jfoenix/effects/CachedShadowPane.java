@@ -0,0 +1,324 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.jfoenix.effects;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import javafx.geometry.Bounds;
+import javafx.geometry.Insets;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Node;
+import javafx.scene.effect.DropShadow;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.BackgroundFill;
+import javafx.scene.layout.CornerRadii;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.transform.Scale;
+
+/**
+ * material node container that draws the shadow of its control using cached nine-slice images
+ * instead of a live effect.
+ * <p>
+ * The shadow of each depth level is rendered once per size bucket and shared by all containers.
+ * Controls large enough to hold both shadow corners plus a 2px center share a single image per level,
+ * the edges of the image are stretched to the control size. The shadow follows the layout bounds of the control, so
+ * it's not affected by the control transformations.
+ */
+class CachedShadowPane extends Pane
+{
+   private static final int MAX_CACHED_SHADOWS = 64;
+   // size step of the shadows rendered for small controls
+   private static final int SIZE_STEP = 4;
+
+   private static final LinkedHashMap<String, ShadowImage> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+   private final Node control;
+   private final int level;
+   private final ImageView[] slices = new ImageView[9];
+
+   private ShadowImage shadowImage;
+   private double shadowX = Double.NaN;
+   private double shadowY = Double.NaN;
+   private double shadowWidth = Double.NaN;
+   private double shadowHeight = Double.NaN;
+
+   CachedShadowPane(Node control, int level)
+   {
+      this.control = control;
+      this.level = level;
+      for (int i = 0; i < slices.length; i++)
+      {
+         slices[i] = new ImageView();
+         slices[i].setManaged(false);
+         slices[i].setMouseTransparent(true);
+         slices[i].setVisible(false);
+         getChildren().add(slices[i]);
+      }
+      getChildren().add(control);
+      getStyleClass().add("depth-container");
+      setPickOnBounds(false);
+   }
+
+   @Override
+   protected double computeMaxWidth(double height)
+   {
+      return computePrefWidth(height);
+   }
+
+   @Override
+   protected double computeMaxHeight(double width)
+   {
+      return computePrefHeight(width);
+   }
+
+   @Override
+   protected double computePrefWidth(double height)
+   {
+      return control.prefWidth(height);
+   }
+
+   @Override
+   protected double computePrefHeight(double width)
+   {
+      return control.prefHeight(width);
+   }
+
+   @Override
+   protected void layoutChildren()
+   {
+      super.layoutChildren();
+      final Bounds bounds = control.getLayoutBounds();
+      final double x = control.getLayoutX() + bounds.getMinX();
+      final double y = control.getLayoutY() + bounds.getMinY();
+      final double width = bounds.getWidth();
+      final double height = bounds.getHeight();
+      final double scale = getScene() == null || getScene().getWindow() == null ? 1 : getScene().getWindow().getOutputScaleX();
+      final ShadowImage image = width <= 0 || height <= 0 ? null : getShadowImage(level, width, height, getCornerRadius(), scale);
+      if (image == shadowImage && x == shadowX && y == shadowY && width == shadowWidth && height == shadowHeight)
+      {
+         return;
+      }
+      shadowImage = image;
+      shadowX = x;
+      shadowY = y;
+      shadowWidth = width;
+      shadowHeight = height;
+      if (image == null)
+      {
+         for (ImageView slice : slices)
+         {
+            slice.setVisible(false);
+         }
+         return;
+      }
+      final double[] columns = image.slice(x, width, image.left, image.width, image.right, image.cornerWidth);
+      final double[] rows = image.slice(y, height, image.top, image.height, image.bottom, image.cornerHeight);
+      for (int row = 0; row < 3; row++)
+      {
+         for (int column = 0; column < 3; column++)
+         {
+            final ImageView slice = slices[row * 3 + column];
+            final double srcWidth = columns[column * 4 + 1];
+            final double srcHeight = rows[row * 4 + 1];
+            final double dstWidth = columns[column * 4 + 3];
+            final double dstHeight = rows[row * 4 + 3];
+            // the center is covered by the control
+            if (srcWidth <= 0 || srcHeight <= 0 || dstWidth <= 0 || dstHeight <= 0 || row == 1 && column == 1)
+            {
+               slice.setVisible(false);
+               continue;
+            }
+            slice.setImage(image.image);
+            slice.setViewport(new Rectangle2D(columns[column * 4] * image.scale,
+                                              rows[row * 4] * image.scale,
+                                              srcWidth * image.scale,
+                                              srcHeight * image.scale));
+            slice.setFitWidth(dstWidth);
+            slice.setFitHeight(dstHeight);
+            slice.relocate(columns[column * 4 + 2], rows[row * 4 + 2]);
+            slice.setVisible(true);
+         }
+      }
+   }
+
+   /**
+    * @return the top left radius of the control background, it's used for all corners
+    */
+   private double getCornerRadius()
+   {
+      if (control instanceof Region)
+      {
+         final Background background = ((Region) control).getBackground();
+         if (background != null && !background.getFills().isEmpty())
+         {
+            final CornerRadii radii = background.getFills().get(0).getRadii();
+            if (radii != null && !radii.isTopLeftHorizontalRadiusAsPercentage())
+            {
+               return Math.round(radii.getTopLeftHorizontalRadius());
+            }
+         }
+      }
+      return 0;
+   }
+
+   private static ShadowImage getShadowImage(int level, double width, double height, double cornerRadius, double scale)
+   {
+      if (level == 0)
+      {
+         return null;
+      }
+      final DropShadow shadow = JFXDepthManager.getSharedShadow(level);
+      final int corner = (int) Math.ceil(shadow.getRadius() + Math.max(Math.abs(shadow.getOffsetX()), Math.abs(shadow.getOffsetY())) + cornerRadius);
+      final int bucketWidth = bucket(width, corner);
+      final int bucketHeight = bucket(height, corner);
+      final String key = level + ":" + bucketWidth + "x" + bucketHeight + ":" + cornerRadius + "@" + scale;
+      ShadowImage image = cache.get(key);
+      if (image == null)
+      {
+         image = new ShadowImage(shadow, bucketWidth, bucketHeight, cornerRadius, scale, Math.min(corner, bucketWidth / 2.0), Math.min(corner, bucketHeight / 2.0));
+         cache.put(key, image);
+         final Iterator<ShadowImage> iterator = cache.values().iterator();
+         while (cache.size() > MAX_CACHED_SHADOWS)
+         {
+            iterator.next();
+            iterator.remove();
+         }
+      }
+      return image;
+   }
+
+   /**
+    * @return the size of the rendered shadow, large sizes share the same shadow that is stretched
+    */
+   private static int bucket(double size, int corner)
+   {
+      if (size >= 2 * corner + 2)
+      {
+         return 2 * corner + 2;
+      }
+      return Math.max(SIZE_STEP, (int) Math.ceil(size / SIZE_STEP) * SIZE_STEP);
+   }
+
+   /**
+    * shadow of a rectangle rendered without the rectangle itself
+    */
+   private static final class ShadowImage
+   {
+      private final WritableImage image;
+      private final double scale;
+      private final double width;
+      private final double height;
+      private final double cornerWidth;
+      private final double cornerHeight;
+      // shadow extents around the rectangle
+      private final double left;
+      private final double top;
+      private final double right;
+      private final double bottom;
+
+      ShadowImage(DropShadow shadow, int width, int height, double cornerRadius, double scale, double cornerWidth, double cornerHeight)
+      {
+         this.scale = scale;
+         this.width = width;
+         this.height = height;
+         this.cornerWidth = cornerWidth;
+         this.cornerHeight = cornerHeight;
+
+         Region region = new Region();
+         region.setBackground(new Background(new BackgroundFill(Color.WHITE, new CornerRadii(cornerRadius), Insets.EMPTY)));
+         region.resize(width, height);
+         region.setEffect(shadow);
+         final Bounds bounds = region.getBoundsInParent();
+         left = -bounds.getMinX();
+         top = -bounds.getMinY();
+         right = bounds.getMaxX() - width;
+         bottom = bounds.getMaxY() - height;
+
+         SnapshotParameters snapShotparams = new SnapshotParameters();
+         snapShotparams.setFill(Color.TRANSPARENT);
+         snapShotparams.setTransform(new Scale(scale, scale));
+         snapShotparams.setViewport(new Rectangle2D(bounds.getMinX() * scale,
+                                                    bounds.getMinY() * scale,
+                                                    Math.ceil(bounds.getWidth() * scale),
+                                                    Math.ceil(bounds.getHeight() * scale)));
+         final WritableImage withShadow = region.snapshot(snapShotparams, null);
+         region.setEffect(null);
+         final WritableImage content = region.snapshot(snapShotparams, null);
+
+         // remove the rectangle from the rendered shadow: result = content + shadow * (1 - content)
+         final int pixelWidth = (int) withShadow.getWidth();
+         final int pixelHeight = (int) withShadow.getHeight();
+         image = new WritableImage(pixelWidth, pixelHeight);
+         final int[] shadowPixels = new int[pixelWidth * pixelHeight];
+         final int[] contentPixels = new int[pixelWidth * pixelHeight];
+         withShadow.getPixelReader().getPixels(0, 0, pixelWidth, pixelHeight, PixelFormat.getIntArgbInstance(), shadowPixels, 0, pixelWidth);
+         content.getPixelReader().getPixels(0, 0, pixelWidth, pixelHeight, PixelFormat.getIntArgbInstance(), contentPixels, 0, pixelWidth);
+         // the shadow pixels are replaced by the result, pixels covered by the content stay transparent
+         final int rgb = toRgb(shadow.getColor());
+         for (int i = 0; i < shadowPixels.length; i++)
+         {
+            final double alpha = (shadowPixels[i] >>> 24) / 255.0;
+            final double contentAlpha = (contentPixels[i] >>> 24) / 255.0;
+            if (contentAlpha >= 1)
+            {
+               shadowPixels[i] = 0;
+               continue;
+            }
+            final double shadowAlpha = Math.max(0, Math.min(1, (alpha - contentAlpha) / (1 - contentAlpha)));
+            shadowPixels[i] = ((int) Math.round(shadowAlpha * 255) << 24) | rgb;
+         }
+         image.getPixelWriter().setPixels(0, 0, pixelWidth, pixelHeight, PixelFormat.getIntArgbInstance(), shadowPixels, 0, pixelWidth);
+      }
+
+      private static int toRgb(Color color)
+      {
+         return ((int) Math.round(color.getRed() * 255) << 16) | ((int) Math.round(color.getGreen() * 255) << 8) | (int) Math.round(color.getBlue() * 255);
+      }
+
+      /**
+       * map the three slices of the shadow to a control on one axis
+       *
+       * @return (source start, source size, destination start, destination size) of each slice
+       */
+      double[] slice(double position, double size, double before, double sourceSize, double after, double corner)
+      {
+         final double dstCorner = Math.min(corner, size / 2);
+         return new double[] {0,
+                              before + corner,
+                              position - before,
+                              before + dstCorner,
+                              before + corner,
+                              sourceSize - 2 * corner,
+                              position + dstCorner,
+                              size - 2 * dstCorner,
+                              before + sourceSize - corner,
+                              corner + after,
+                              position + size - dstCorner,
+                              dstCorner + after};
+      }
+   }
+}
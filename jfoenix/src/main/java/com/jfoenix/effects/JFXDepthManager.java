@@ -43,6 +43,26 @@ public class JFXDepthManager
                                                          new DropShadow(BlurType.GAUSSIAN, Color.rgb(0, 0, 0, 0.26), 25, 0.25, 0, 8),
                                                          new DropShadow(BlurType.GAUSSIAN, Color.rgb(0, 0, 0, 0.26), 30, 0.30, 0, 10)};
 
+   /**
+    * shadows shared by the nodes of {@link #setSharedDepth(Node, int)} and {@link #createCachedMaterialNode(Node, int)},
+    * they can be reached through the effect of those nodes and must not be modified, as a change
+    * would apply to all the nodes of the same depth level
+    */
+   private static final DropShadow[] sharedDepth = new DropShadow[depth.length];
+
+   static
+   {
+      for (int i = 0; i < depth.length; i++)
+      {
+         sharedDepth[i] = new DropShadow(BlurType.GAUSSIAN,
+                                         depth[i].getColor(),
+                                         depth[i].getRadius(),
+                                         depth[i].getSpread(),
+                                         depth[i].getOffsetX(),
+                                         depth[i].getOffsetY());
+      }
+   }
+
    /**
     * this method is used to add shadow effect to the node, however the shadow is not real ( gets
     * affected with node transformations)
@@ -61,6 +81,25 @@ public class JFXDepthManager
                                        depth[level].getOffsetY()));
    }
 
+   /**
+    * this method is used to add a shared shadow effect to the node, all nodes of the same depth level
+    * use the same effect instance.
+    * <p>
+    * <b>Note:</b> the effect of the node must not be modified (e.g. animated), use
+    * {@link #setDepth(Node, int)} instead for such nodes
+    */
+   public static void setSharedDepth(Node control, int level)
+   {
+      control.setEffect(getSharedShadow(level));
+   }
+
+   static DropShadow getSharedShadow(int level)
+   {
+      level = level < 0 ? 0 : level;
+      level = level > 5 ? 5 : level;
+      return sharedDepth[level];
+   }
+
    public static int getLevels()
    {
       return depth.length;
@@ -107,6 +146,7 @@ public class JFXDepthManager
       container.setPickOnBounds(false);
       level = level < 0 ? 0 : level;
       level = level > 5 ? 5 : level;
+      // the container is returned to the caller, so it gets its own effect
       container.setEffect(new DropShadow(BlurType.GAUSSIAN,
                                          depth[level].getColor(),
                                          depth[level].getRadius(),
@@ -116,6 +156,21 @@ public class JFXDepthManager
       return container;
    }
 
+   /**
+    * this method will generate a new container node that draws the control shadow using cached
+    * images instead of a live effect, so the shadow is not blurred again when the control changes.
+    * <p>
+    * The shadow of each depth level is rendered once per size bucket into nine-slice images that
+    * are shared by all containers. The shadow is drawn for the layout bounds of the control, using
+    * the corner radius of its background if it's a region.
+    */
+   public static Node createCachedMaterialNode(Node control, int level)
+   {
+      level = level < 0 ? 0 : level;
+      level = level > 5 ? 5 : level;
+      return new CachedShadowPane(control, level);
+   }
+
    public static void pop(Node control)
    {
       control.setEffect(new DropShadow(BlurType.GAUSSIAN, Color.rgb(0, 0, 0, 0.26), 5, 0.05, 0, 1));
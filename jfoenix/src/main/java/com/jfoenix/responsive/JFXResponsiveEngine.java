@@ -0,0 +1,447 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.jfoenix.responsive;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.value.ChangeListener;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.css.PseudoClass;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.Control;
+import javafx.scene.control.ScrollPane;
+import javafx.stage.Stage;
+
+/**
+ * Responsive engine of a {@link Stage}, it applies the pseudo classes of the breakpoints matching
+ * the scene size to the scene root.
+ * <p>
+ * By default pseudo classes are only set on the root, so the engine doesn't listen to the scene
+ * content and nodes added to the scene need no work. Stylesheets match them using descendant
+ * selectors, e.g.
+ * <pre>
+ * .root:small-device .button {
+ *    -fx-font-size: 10px;
+ * }
+ * </pre>
+ * Stylesheets written for {@link JFXResponsiveHandler} set the pseudo classes on the controls
+ * themselves, e.g. {@code .button:small-device}. They need {@link #setTagControls(boolean)}, the
+ * engine then also applies the pseudo classes to the controls of the scene, and to controls added
+ * later, until it's uninstalled.
+ * By default the engine uses the following width breakpoints:
+ * <ul>
+ * <li>{@link #PSEUDO_CLASS_EX_SMALL} below 600px</li>
+ * <li>{@link #PSEUDO_CLASS_SMALL} from 600px to 960px</li>
+ * <li>{@link #PSEUDO_CLASS_MEDIUM} from 960px to 1280px</li>
+ * <li>{@link #PSEUDO_CLASS_LARGE} from 1280px</li>
+ * </ul>
+ */
+public final class JFXResponsiveEngine
+{
+
+   public static final PseudoClass PSEUDO_CLASS_EX_SMALL = PseudoClass.getPseudoClass("extreme-small-device");
+   public static final PseudoClass PSEUDO_CLASS_SMALL = PseudoClass.getPseudoClass("small-device");
+   public static final PseudoClass PSEUDO_CLASS_MEDIUM = PseudoClass.getPseudoClass("medium-device");
+   public static final PseudoClass PSEUDO_CLASS_LARGE = PseudoClass.getPseudoClass("large-device");
+
+   private static final Object ENGINE_KEY = new Object();
+
+   /**
+    * @return the responsive engine of the specified stage, it's created if needed
+    */
+   public static JFXResponsiveEngine install(Stage stage)
+   {
+      JFXResponsiveEngine engine = (JFXResponsiveEngine) stage.getProperties().get(ENGINE_KEY);
+      if (engine == null)
+      {
+         engine = new JFXResponsiveEngine(stage);
+         stage.getProperties().put(ENGINE_KEY, engine);
+      }
+      return engine;
+   }
+
+   /**
+    * remove the responsive engine of the specified stage and its pseudo classes
+    */
+   public static void uninstall(Stage stage)
+   {
+      JFXResponsiveEngine engine = (JFXResponsiveEngine) stage.getProperties().remove(ENGINE_KEY);
+      if (engine != null)
+      {
+         engine.dispose();
+      }
+   }
+
+   private final Stage stage;
+   private final ObservableList<Breakpoint> breakpoints = FXCollections.observableArrayList();
+   private final Set<PseudoClass> activePseudoClasses = new HashSet<>();
+   private PseudoClass device;
+   private Parent root;
+   private boolean tagControls = false;
+   // weak sets, the engine must not keep nodes that left the scene alive
+   private final Set<Control> taggedControls = Collections.newSetFromMap(new WeakHashMap<>());
+   private final Set<Parent> observedParents = Collections.newSetFromMap(new WeakHashMap<>());
+   private final Set<ScrollPane> observedScrollPanes = Collections.newSetFromMap(new WeakHashMap<>());
+
+   private final InvalidationListener updateListener = observable -> update();
+   private final ChangeListener<Parent> rootListener = (o, oldVal, newVal) -> setRoot(newVal);
+   private final ChangeListener<Scene> sceneListener = (o, oldVal, newVal) ->
+   {
+      if (oldVal != null)
+      {
+         oldVal.rootProperty().removeListener(rootListener);
+         oldVal.widthProperty().removeListener(updateListener);
+         oldVal.heightProperty().removeListener(updateListener);
+      }
+      if (newVal != null)
+      {
+         newVal.rootProperty().addListener(rootListener);
+         newVal.widthProperty().addListener(updateListener);
+         newVal.heightProperty().addListener(updateListener);
+      }
+      setRoot(newVal == null ? null : newVal.getRoot());
+   };
+   // a single listener instance is shared by all observed nodes, so it can be removed from them
+   private final ListChangeListener<Node> childrenListener = change ->
+   {
+      while (change.next())
+      {
+         if (!change.wasPermutated() && !change.wasUpdated())
+         {
+            for (Node removed : change.getRemoved())
+            {
+               untag(removed);
+            }
+            for (Node added : change.getAddedSubList())
+            {
+               tag(added);
+            }
+         }
+      }
+   };
+   private final ChangeListener<Node> contentListener = (o, oldVal, newVal) ->
+   {
+      if (oldVal != null)
+      {
+         untag(oldVal);
+      }
+      if (newVal != null)
+      {
+         tag(newVal);
+      }
+   };
+
+   private JFXResponsiveEngine(Stage stage)
+   {
+      this.stage = stage;
+      breakpoints.addAll(new Breakpoint(PSEUDO_CLASS_EX_SMALL, 0, 600),
+                         new Breakpoint(PSEUDO_CLASS_SMALL, 600, 960),
+                         new Breakpoint(PSEUDO_CLASS_MEDIUM, 960, 1280),
+                         new Breakpoint(PSEUDO_CLASS_LARGE, 1280, Double.MAX_VALUE));
+      breakpoints.addListener(updateListener);
+      stage.sceneProperty().addListener(sceneListener);
+      sceneListener.changed(stage.sceneProperty(), null, stage.getScene());
+   }
+
+   private void dispose()
+   {
+      breakpoints.removeListener(updateListener);
+      stage.sceneProperty().removeListener(sceneListener);
+      sceneListener.changed(stage.sceneProperty(), stage.getScene(), null);
+   }
+
+   /**
+    * @return the breakpoints of the engine, they can be modified to define custom breakpoints
+    */
+   public ObservableList<Breakpoint> getBreakpoints()
+   {
+      return breakpoints;
+   }
+
+   /**
+    * @return the pseudo classes currently applied to the scene root, and its controls if they are
+    * tagged
+    */
+   public Set<PseudoClass> getActivePseudoClasses()
+   {
+      return Collections.unmodifiableSet(activePseudoClasses);
+   }
+
+   public PseudoClass getDevice()
+   {
+      return device;
+   }
+
+   /**
+    * sets a fixed device pseudo class, chosen by the user according to a device detection
+    * methodology, that is applied instead of the breakpoints
+    *
+    * @param device pseudo class of the device, or null to use the breakpoints
+    */
+   public void setDevice(PseudoClass device)
+   {
+      this.device = device;
+      update();
+   }
+
+   public boolean isTagControls()
+   {
+      return tagControls;
+   }
+
+   /**
+    * sets whether the pseudo classes are also applied to each control of the scene, as done by
+    * {@link JFXResponsiveHandler}. It requires listening to the children of the scene containers,
+    * so it should only be enabled for stylesheets that can't use descendant selectors.
+    */
+   public void setTagControls(boolean tagControls)
+   {
+      if (this.tagControls == tagControls)
+      {
+         return;
+      }
+      if (root != null && this.tagControls)
+      {
+         untag(root);
+      }
+      this.tagControls = tagControls;
+      if (root != null && tagControls)
+      {
+         tag(root);
+      }
+   }
+
+   private void setRoot(Parent root)
+   {
+      if (this.root != null)
+      {
+         setPseudoClasses(this.root, false);
+         if (tagControls)
+         {
+            untag(this.root);
+         }
+      }
+      this.root = root;
+      if (root != null)
+      {
+         setPseudoClasses(root, true);
+         if (tagControls)
+         {
+            tag(root);
+         }
+      }
+      update();
+   }
+
+   private void setPseudoClasses(Node node, boolean active)
+   {
+      for (PseudoClass pseudoClass : activePseudoClasses)
+      {
+         node.pseudoClassStateChanged(pseudoClass, active);
+      }
+   }
+
+   /**
+    * applies the pseudo classes to the controls of the specified node, and observes its containers
+    * to tag the controls added later. Like the scan of {@link JFXResponsiveHandler}, the children
+    * of controls aren't scanned except the content of scroll panes.
+    */
+   private void tag(Node node)
+   {
+      if (node instanceof Control)
+      {
+         if (taggedControls.add((Control) node))
+         {
+            setPseudoClasses(node, true);
+         }
+         if (node instanceof ScrollPane && observedScrollPanes.add((ScrollPane) node))
+         {
+            ScrollPane scrollPane = (ScrollPane) node;
+            scrollPane.contentProperty().addListener(contentListener);
+            if (scrollPane.getContent() != null)
+            {
+               tag(scrollPane.getContent());
+            }
+         }
+      }
+      else if (node instanceof Parent && observedParents.add((Parent) node))
+      {
+         Parent parent = (Parent) node;
+         parent.getChildrenUnmodifiable().addListener(childrenListener);
+         for (Node child : parent.getChildrenUnmodifiable())
+         {
+            tag(child);
+         }
+      }
+   }
+
+   private void untag(Node node)
+   {
+      if (node instanceof Control)
+      {
+         if (taggedControls.remove(node))
+         {
+            setPseudoClasses(node, false);
+         }
+         if (node instanceof ScrollPane && observedScrollPanes.remove(node))
+         {
+            ScrollPane scrollPane = (ScrollPane) node;
+            scrollPane.contentProperty().removeListener(contentListener);
+            if (scrollPane.getContent() != null)
+            {
+               untag(scrollPane.getContent());
+            }
+         }
+      }
+      else if (node instanceof Parent && observedParents.remove(node))
+      {
+         Parent parent = (Parent) node;
+         parent.getChildrenUnmodifiable().removeListener(childrenListener);
+         for (Node child : parent.getChildrenUnmodifiable())
+         {
+            untag(child);
+         }
+      }
+   }
+
+   /**
+    * only the pseudo classes that changed are updated, so css is reapplied only when a breakpoint is
+    * crossed
+    */
+   private void update()
+   {
+      Set<PseudoClass> matched = new HashSet<>();
+      if (device != null)
+      {
+         matched.add(device);
+      }
+      else
+      {
+         // the scene size excludes the window decorations
+         final Scene scene = stage.getScene();
+         final double width = scene == null ? 0 : scene.getWidth();
+         final double height = scene == null ? 0 : scene.getHeight();
+         for (Breakpoint breakpoint : breakpoints)
+         {
+            if (breakpoint.matches(width, height))
+            {
+               matched.add(breakpoint.getPseudoClass());
+            }
+         }
+      }
+      if (matched.equals(activePseudoClasses))
+      {
+         return;
+      }
+      for (PseudoClass pseudoClass : activePseudoClasses)
+      {
+         if (!matched.contains(pseudoClass))
+         {
+            setPseudoClass(pseudoClass, false);
+         }
+      }
+      for (PseudoClass pseudoClass : matched)
+      {
+         if (!activePseudoClasses.contains(pseudoClass))
+         {
+            setPseudoClass(pseudoClass, true);
+         }
+      }
+      activePseudoClasses.clear();
+      activePseudoClasses.addAll(matched);
+   }
+
+   private void setPseudoClass(PseudoClass pseudoClass, boolean active)
+   {
+      if (root != null)
+      {
+         root.pseudoClassStateChanged(pseudoClass, active);
+      }
+      for (Control control : taggedControls)
+      {
+         control.pseudoClassStateChanged(pseudoClass, active);
+      }
+   }
+
+   /**
+    * pseudo class applied while the scene size is within the breakpoint range, minimums are inclusive
+    * and maximums are exclusive
+    */
+   public static final class Breakpoint
+   {
+      private final PseudoClass pseudoClass;
+      private final double minWidth;
+      private final double maxWidth;
+      private final double minHeight;
+      private final double maxHeight;
+
+      public Breakpoint(PseudoClass pseudoClass, double minWidth, double maxWidth)
+      {
+         this(pseudoClass, minWidth, maxWidth, 0, Double.MAX_VALUE);
+      }
+
+      public Breakpoint(PseudoClass pseudoClass, double minWidth, double maxWidth, double minHeight, double maxHeight)
+      {
+         this.pseudoClass = pseudoClass;
+         this.minWidth = minWidth;
+         this.maxWidth = maxWidth;
+         this.minHeight = minHeight;
+         this.maxHeight = maxHeight;
+      }
+
+      public PseudoClass getPseudoClass()
+      {
+         return pseudoClass;
+      }
+
+      public double getMinWidth()
+      {
+         return minWidth;
+      }
+
+      public double getMaxWidth()
+      {
+         return maxWidth;
+      }
+
+      public double getMinHeight()
+      {
+         return minHeight;
+      }
+
+      public double getMaxHeight()
+      {
+         return maxHeight;
+      }
+
+      boolean matches(double width, double height)
+      {
+         return width >= minWidth && width < maxWidth && height >= minHeight && height < maxHeight;
+      }
+   }
+}
@@ -19,30 +19,29 @@
 
 package com.jfoenix.responsive;
 
-import javafx.collections.ListChangeListener;
 import javafx.css.PseudoClass;
-import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.control.Control;
-import javafx.scene.control.ScrollPane;
-import javafx.scene.layout.Pane;
 import javafx.stage.Stage;
 
 /**
- * Responsive handler will scan all nodes in the scene and add a certain pseudo class (style class)
- * to them according to the device ( screen size )
+ * Responsive handler will add a certain pseudo class (style class) to the scene according to the
+ * device ( screen size )
+ * <p>
+ * The pseudo class is applied by the {@link JFXResponsiveEngine} of the stage to the scene root and,
+ * as before, to the controls of the scene, so {@code .button:small-device} selectors keep working.
  *
  * @author Shadi Shaheen
  * @version 1.0
  * @since 2016-03-09
+ * @deprecated use {@link JFXResponsiveEngine} instead
  */
+@Deprecated
 public class JFXResponsiveHandler
 {
 
-   public static final PseudoClass PSEUDO_CLASS_EX_SMALL = PseudoClass.getPseudoClass("extreme-small-device");
-   public static final PseudoClass PSEUDO_CLASS_SMALL = PseudoClass.getPseudoClass("small-device");
-   public static final PseudoClass PSEUDO_CLASS_MEDIUM = PseudoClass.getPseudoClass("medium-device");
-   public static final PseudoClass PSEUDO_CLASS_LARGE = PseudoClass.getPseudoClass("large-device");
+   public static final PseudoClass PSEUDO_CLASS_EX_SMALL = JFXResponsiveEngine.PSEUDO_CLASS_EX_SMALL;
+   public static final PseudoClass PSEUDO_CLASS_SMALL = JFXResponsiveEngine.PSEUDO_CLASS_SMALL;
+   public static final PseudoClass PSEUDO_CLASS_MEDIUM = JFXResponsiveEngine.PSEUDO_CLASS_MEDIUM;
+   public static final PseudoClass PSEUDO_CLASS_LARGE = JFXResponsiveEngine.PSEUDO_CLASS_LARGE;
 
    /**
     * Construct a responsive handler for a specified Stage and css class.
@@ -62,86 +61,9 @@ public class JFXResponsiveHandler
     */
    public JFXResponsiveHandler(Stage stage, PseudoClass pseudoClass)
    {
-      scanAllNodes(stage.getScene().getRoot(), pseudoClass);
-   }
-
-   /**
-    * scans all nodes in the scene and apply the css pseduoClass to them.
-    *
-    * @param parent      stage parent node
-    * @param pseudoClass css class for certain device
-    */
-   private void scanAllNodes(Parent parent, PseudoClass pseudoClass)
-   {
-      parent.getChildrenUnmodifiable().addListener(new ListChangeListener<Node>()
-      {
-         @Override
-         public void onChanged(javafx.collections.ListChangeListener.Change<? extends Node> c)
-         {
-            while (c.next())
-            {
-               if (!c.wasPermutated() && !c.wasUpdated())
-               {
-                  for (Node addedNode : c.getAddedSubList())
-                  {
-                     if (addedNode instanceof Parent)
-                     {
-                        scanAllNodes((Parent) addedNode, pseudoClass);
-                     }
-                  }
-               }
-            }
-         }
-      });
-      for (Node component : parent.getChildrenUnmodifiable())
-      {
-         if (component instanceof Pane)
-         {
-            ((Pane) component).getChildren().addListener(new ListChangeListener<Node>()
-            {
-               @Override
-               public void onChanged(javafx.collections.ListChangeListener.Change<? extends Node> c)
-               {
-                  while (c.next())
-                  {
-                     if (!c.wasPermutated() && !c.wasUpdated())
-                     {
-                        for (Node addedNode : c.getAddedSubList())
-                        {
-                           if (addedNode instanceof Parent)
-                           {
-                              scanAllNodes((Parent) addedNode, pseudoClass);
-                           }
-                        }
-                     }
-                  }
-               }
-            });
-            //if the component is a container, scan its children
-            scanAllNodes((Pane) component, pseudoClass);
-         }
-         else if (component instanceof ScrollPane)
-         {
-            ((ScrollPane) component).contentProperty().addListener((o, oldVal, newVal) ->
-            {
-               scanAllNodes((Parent) newVal, pseudoClass);
-            });
-            //if the component is a container, scan its children
-            if (((ScrollPane) component).getContent() instanceof Parent)
-            {
-
-               scanAllNodes((Parent) ((ScrollPane) component).getContent(), pseudoClass);
-            }
-         }
-         else if (component instanceof Control)
-         {
-            //if the component is an instance of IInputControl, add to list
-            component.pseudoClassStateChanged(PSEUDO_CLASS_EX_SMALL, pseudoClass == PSEUDO_CLASS_EX_SMALL);
-            component.pseudoClassStateChanged(PSEUDO_CLASS_SMALL, pseudoClass == PSEUDO_CLASS_SMALL);
-            component.pseudoClassStateChanged(PSEUDO_CLASS_MEDIUM, pseudoClass == PSEUDO_CLASS_MEDIUM);
-            component.pseudoClassStateChanged(PSEUDO_CLASS_LARGE, pseudoClass == PSEUDO_CLASS_LARGE);
-         }
-      }
+      JFXResponsiveEngine engine = JFXResponsiveEngine.install(stage);
+      engine.setTagControls(true);
+      engine.setDevice(pseudoClass);
    }
 
 }
@@ -19,6 +19,10 @@
 
 package com.jfoenix.skins;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
 import com.jfoenix.effects.JFXDepthManager;
 import com.jfoenix.transitions.CachedTransition;
 
@@ -36,13 +40,15 @@ import javafx.scene.Node;
 import javafx.scene.effect.ColorAdjust;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
-import javafx.scene.image.PixelWriter;
+import javafx.scene.image.PixelFormat;
 import javafx.scene.image.WritableImage;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
 import javafx.scene.shape.Path;
+import javafx.stage.Screen;
+import javafx.stage.Window;
 import javafx.util.Duration;
 
 /**
@@ -67,6 +73,21 @@ class JFXColorPickerUI extends Pane
    private Pane colorSelector;
    private Pane selector;
    private CurveTransition colorsTransition;
+   // output scale of the current rasters
+   private double rasterScale;
+
+   /**
+    * rasters of the hues and SL circles shared by all pickers, keyed by kind, size and output scale
+    */
+   private static final int MAX_CACHED_RASTERS = 8;
+   private static final Map<String, Image> RASTERS = new LinkedHashMap<String, Image>(16, 0.75f, true)
+   {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Image> eldest)
+      {
+         return size() > MAX_CACHED_RASTERS;
+      }
+   };
 
    public JFXColorPickerUI(int pickerSize)
    {
@@ -82,8 +103,13 @@ class JFXColorPickerUI extends Pane
       final double huesLargeR = pickerRadius;
       this.slRadius = pickerRadius * 0.7;
 
+      // popups are mostly shown on the primary screen, the rasters are updated on layout otherwise
+      rasterScale = Screen.getPrimary().getOutputScaleX();
+
       // Create Hues Circle
-      huesCircleView = new ImageView(getHuesCircle(pickerSize, pickerSize));
+      huesCircleView = new ImageView(getHuesCircle(pickerSize, rasterScale));
+      huesCircleView.setFitWidth(pickerSize);
+      huesCircleView.setFitHeight(pickerSize);
       // clip to smooth the edges
       Circle outterCircle = new Circle(centerX, centerY, huesLargeR - 2);
       Circle innterCircle = new Circle(centerX, centerY, huesSmallR + 2);
@@ -138,7 +164,9 @@ class JFXColorPickerUI extends Pane
                                                                             (int) (newVal.intValue() + colorSelector.getPrefHeight() / 2)));
 
       // Create SL Circle
-      slCircleView = new ImageView(getSLCricle(pickerSize, pickerSize));
+      slCircleView = new ImageView(getSLCircle(pickerSize, rasterScale));
+      slCircleView.setFitWidth(pickerSize);
+      slCircleView.setFitHeight(pickerSize);
       slCircleView.setClip(new Circle(centerX, centerY, slRadius - 2));
       slCircleView.setPickOnBounds(false);
       this.getChildren().add(slCircleView);
@@ -231,10 +259,26 @@ class JFXColorPickerUI extends Pane
       colorNodes.removeAll(nodes);
    }
 
+   @Override
+   protected void layoutChildren()
+   {
+      super.layoutChildren();
+      final Window window = getScene() == null ? null : getScene().getWindow();
+      if (window != null && window.getOutputScaleX() != rasterScale)
+      {
+         rasterScale = window.getOutputScaleX();
+         huesCircleView.setImage(getHuesCircle(pickerSize, rasterScale));
+         slCircleView.setImage(getSLCircle(pickerSize, rasterScale));
+      }
+   }
+
    private void updateHSLCircleColor(int x, int y)
    {
       // transform color to HSL space
-      Color color = huesCircleView.getImage().getPixelReader().getColor(x, y);
+      Image huesCircle = huesCircleView.getImage();
+      int pixelX = (int) Math.max(0, Math.min(x * rasterScale, huesCircle.getWidth() - 1));
+      int pixelY = (int) Math.max(0, Math.min(y * rasterScale, huesCircle.getHeight() - 1));
+      Color color = huesCircle.getPixelReader().getColor(pixelX, pixelY);
       double max = Math.max(color.getRed(), Math.max(color.getGreen(), color.getBlue()));
       double min = Math.min(color.getRed(), Math.min(color.getGreen(), color.getBlue()));
       double hue = 0;
@@ -385,60 +429,126 @@ class JFXColorPickerUI extends Pane
       return getColor(dx, dy);
    }
 
-   private Image getHuesCircle(int width, int height)
+   /**
+    * per-pixel color of a raster, given in logical coordinates
+    */
+   @FunctionalInterface
+   private interface PixelShader
+   {
+      /**
+       * @param rgb reusable buffer of the calling thread
+       * @return the premultiplied argb color
+       */
+      int shade(double x, double y, double[] rgb);
+   }
+
+   private static Image getHuesCircle(int size, double scale)
    {
-      WritableImage raster = new WritableImage(width, height);
-      PixelWriter pixelWriter = raster.getPixelWriter();
-      Point2D center = new Point2D((double) width / 2, (double) height / 2);
-      double rsmall = 0.8 * width / 2;
-      double rbig = (double) width / 2;
-      for (int y = 0; y < height; y++)
+      final double center = (double) size / 2;
+      final double rsmall = 0.8 * size / 2;
+      final double rbig = (double) size / 2;
+      return getRaster("hues", size, scale, (x, y, rgb) ->
       {
-         for (int x = 0; x < width; x++)
+         double dx = x - center;
+         double dy = y - center;
+         double distance = Math.sqrt((dx * dx) + (dy * dy));
+         if (distance > rsmall && distance < rbig)
          {
-            double dx = x - center.getX();
-            double dy = y - center.getY();
-            double distance = Math.sqrt((dx * dx) + (dy * dy));
-            double o = Math.atan2(dy, dx);
-            if (distance > rsmall && distance < rbig)
-            {
-               double H = map(o, -Math.PI, Math.PI, 0, 255);
-               double S = 255;
-               double L = 152;
-               pixelWriter.setColor(x, y, HSL2RGB(H, S, L));
-            }
+            double H = map(Math.atan2(dy, dx), -Math.PI, Math.PI, 0, 255);
+            double S = 255;
+            double L = 152;
+            HSL2RGB(H, S, L, rgb);
+            return toArgb(rgb);
          }
-      }
-      return raster;
+         return 0;
+      });
+   }
+
+   /**
+    * the SL circle is rendered once with the red hue, other hues are applied using a
+    * {@link ColorAdjust} effect
+    */
+   private static Image getSLCircle(int size, double scale)
+   {
+      final double center = (double) size / 2;
+      final double rverysmall = 0.65 * ((double) size / 2);
+      return getRaster("sl", size, scale, (x, y, rgb) ->
+      {
+         getColor(y - center, x - center, rverysmall, 0, rgb);
+         return toArgb(rgb);
+      });
    }
 
-   private Image getSLCricle(int width, int height)
+   private static Image getRaster(String kind, int size, double scale, PixelShader shader)
    {
-      WritableImage raster = new WritableImage(width, height);
-      PixelWriter pixelWriter = raster.getPixelWriter();
-      Point2D center = new Point2D((double) width / 2, (double) height / 2);
-      for (int y = 0; y < height; y++)
+      final String key = kind + ":" + size + "@" + scale;
+      synchronized (RASTERS)
       {
-         for (int x = 0; x < width; x++)
+         Image raster = RASTERS.get(key);
+         if (raster == null)
          {
-            double dy = x - center.getX();
-            double dx = y - center.getY();
-            pixelWriter.setColor(x, y, getColor(dx, dy));
+            raster = rasterize(size, scale, shader);
+            RASTERS.put(key, raster);
          }
+         return raster;
       }
+   }
+
+   /**
+    * compute the pixels in parallel row bands, then write them all at once
+    */
+   private static Image rasterize(int size, double scale, PixelShader shader)
+   {
+      final int length = (int) Math.ceil(size * scale);
+      final int[] pixels = new int[length * length];
+      final int bands = Math.min(length, Runtime.getRuntime().availableProcessors() * 4);
+      final int bandHeight = (length + bands - 1) / bands;
+      IntStream.range(0, bands).parallel().forEach(band ->
+      {
+         final double[] rgb = new double[3];
+         final int end = Math.min(length, (band + 1) * bandHeight);
+         for (int y = band * bandHeight; y < end; y++)
+         {
+            for (int x = 0; x < length; x++)
+            {
+               pixels[y * length + x] = shader.shade(x / scale, y / scale, rgb);
+            }
+         }
+      });
+      WritableImage raster = new WritableImage(length, length);
+      raster.getPixelWriter().setPixels(0, 0, length, length, PixelFormat.getIntArgbPreInstance(), pixels, 0, length);
       return raster;
    }
 
-   private double clamp(double from, double small, double big)
+   private static int toArgb(double[] rgb)
+   {
+      return 0xff000000
+             | (int) Math.round(rgb[0] * 255) << 16
+             | (int) Math.round(rgb[1] * 255) << 8
+             | (int) Math.round(rgb[2] * 255);
+   }
+
+   private static double clamp(double from, double small, double big)
    {
       return Math.min(Math.max(from, small), big);
    }
 
    private Color getColor(double dx, double dy)
+   {
+      double[] rgb = new double[3];
+      getColor(dx, dy, 0.65 * ((double) pickerSize / 2), currentHue, rgb);
+      return new Color(rgb[0], rgb[1], rgb[2], 1);
+   }
+
+   /**
+    * @param rgb receives the color components, blue outside of the SL circle
+    */
+   private static void getColor(double dx, double dy, double rverysmall, double hue, double[] rgb)
    {
       double distance = Math.sqrt((dx * dx) + (dy * dy));
-      double rverysmall = 0.65 * ((double) pickerSize / 2);
-      Color pixelColor = Color.BLUE;
+      rgb[0] = 0;
+      rgb[1] = 0;
+      rgb[2] = 1;
 
       if (distance <= rverysmall * 1.1)
       {
@@ -488,9 +598,8 @@ class JFXColorPickerUI extends Pane
             saturation = 255 - saturation;
          }
          saturation = clamp(saturation, 0, 255);
-         pixelColor = HSL2RGB(currentHue, saturation, lightness);
+         HSL2RGB(hue, saturation, lightness, rgb);
       }
-      return pixelColor;
    }
 
    /***************************************************************************
@@ -546,12 +655,12 @@ class JFXColorPickerUI extends Pane
     * * Util methods * *
     **************************************************************************/
 
-   private double map(double val, double min1, double max1, double min2, double max2)
+   private static double map(double val, double min1, double max1, double min2, double max2)
    {
       return min2 + (max2 - min2) * ((val - min1) / (max1 - min1));
    }
 
-   private Color HSL2RGB(double hue, double sat, double lum)
+   private static void HSL2RGB(double hue, double sat, double lum, double[] rgb)
    {
       hue = map(hue, 0, 255, 0, 359);
       sat = map(sat, 0, 255, 0, 1);
@@ -612,10 +721,12 @@ class JFXColorPickerUI extends Pane
                break;
          }
       }
-      return new Color(red, green, blue, 1);
+      rgb[0] = red;
+      rgb[1] = green;
+      rgb[2] = blue;
    }
 
-   private double[] circleFrom3Points(Point2D a, Point2D b, Point2D c)
+   private static double[] circleFrom3Points(Point2D a, Point2D b, Point2D c)
    {
       double ax, ay, bx, by, cx, cy, x1, y11, dx1, dy1, x2, y2, dx2, dy2, ox, oy, dx, dy, radius; // Variables Used and to Declared
       ax = a.getX();
@@ -26,6 +26,7 @@ import static java.time.temporal.ChronoUnit.YEARS;
 
 import java.time.DateTimeException;
 import java.time.LocalDate;
+import java.time.Year;
 import java.time.YearMonth;
 import java.time.chrono.ChronoLocalDate;
 import java.time.chrono.Chronology;
@@ -38,11 +39,13 @@ import java.util.List;
 import java.util.Locale;
 
 import com.jfoenix.assets.JFoenixResources;
+import com.jfoenix.cache.SnapshotBufferPool;
 import com.jfoenix.controls.JFXButton;
 import com.jfoenix.controls.JFXDatePicker;
 import com.jfoenix.controls.JFXListCell;
 import com.jfoenix.controls.JFXListView;
 import com.jfoenix.svg.SVGGlyph;
+import com.jfoenix.transitions.CacheMemento;
 import com.jfoenix.transitions.CachedTransition;
 
 import javafx.animation.Animation.Status;
@@ -52,18 +55,19 @@ import javafx.animation.KeyValue;
 import javafx.animation.ParallelTransition;
 import javafx.animation.Timeline;
 import javafx.animation.TranslateTransition;
+import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.ObservableListBase;
 import javafx.css.PseudoClass;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
-import javafx.scene.SnapshotParameters;
 import javafx.scene.control.DateCell;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListView;
 import javafx.scene.image.ImageView;
-import javafx.scene.image.WritableImage;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
@@ -122,11 +126,15 @@ public class JFXDatePickerContent extends VBox
    private LocalDate[] dayCellDates;
    private DateCell currentFocusedDayCell = null;
 
-   private ListView<String> yearsListView = new JFXListView<String>()
+   // ISO year of the displayed month
+   private final IntegerProperty displayedYear = new SimpleIntegerProperty(this, "displayedYear");
+   private final YearList years = new YearList();
+
+   private ListView<Integer> yearsListView = new JFXListView<Integer>()
    {
       {
          this.getStyleClass().setAll("date-picker-list-view");
-         this.setCellFactory(listView -> new JFXListCell<String>()
+         this.setCellFactory(listView -> new JFXListCell<Integer>()
          {
             boolean mousePressed = false;
 
@@ -136,25 +144,25 @@ public class JFXDatePickerContent extends VBox
                setOnMouseReleased(release -> mousePressed = false);
                setOnMouseClicked(click ->
                {
-                  String selectedItem = yearsListView.getSelectionModel().getSelectedItem();
-                  if (selectedItem != null && selectedItem.equals(getText()))
+                  Integer selectedItem = yearsListView.getSelectionModel().getSelectedItem();
+                  if (selectedItem != null && selectedItem.equals(getItem()))
                   {
-                     int offset = Integer.parseInt(getText()) - Integer.parseInt(selectedYearLabel.getText());
+                     int offset = selectedItem - displayedYear.get();
                      forward(offset, YEARS, false, false);
                      hideTransition.setOnFinished(finish ->
                      {
                         selectedYearCell.set(this);
                         pseudoClassStateChanged(selectedYear, true);
                         setTextFill(datePicker.getDefaultColor());
-                        yearsListView.scrollTo(this.getIndex() - 2 >= 0 ? this.getIndex() - 2 : this.getIndex());
+                        scrollToYear();
                         hideTransition.setOnFinished(null);
                      });
                      hideTransition.play();
                   }
                });
-               selectedYearLabel.textProperty().addListener((o, oldVal, newVal) ->
+               displayedYear.addListener((o, oldVal, newVal) ->
                {
-                  if (!yearsListView.isVisible() && newVal.equals(getText()))
+                  if (!yearsListView.isVisible() && !isEmpty() && getItem() == newVal.intValue())
                   {
                      selectedYearCell.set(this);
                   }
@@ -162,12 +170,12 @@ public class JFXDatePickerContent extends VBox
             }
 
             @Override
-            public void updateItem(String item, boolean empty)
+            public void updateItem(Integer item, boolean empty)
             {
                super.updateItem(item, empty);
                if (!empty)
                {
-                  final boolean isSelectedYear = item.equals(selectedYearLabel.getText());
+                  final boolean isSelectedYear = item == displayedYear.get();
                   if (isSelectedYear)
                   {
                      selectedYearCell.set(this);
@@ -201,6 +209,7 @@ public class JFXDatePickerContent extends VBox
 
       LocalDate date = datePicker.getValue();
       selectedYearMonth.set((date != null) ? YearMonth.from(date) : YearMonth.now());
+      displayedYear.set(selectedYearMonth.get().getYear());
       selectedYearMonth.addListener((observable, oldValue, newValue) -> updateValues());
 
       // add change listener to change the color of the selected year cell
@@ -267,11 +276,11 @@ public class JFXDatePickerContent extends VBox
       clip.heightProperty().bind(calendarPlaceHolder.heightProperty());
       calendarPlaceHolder.setClip(clip);
 
-      // create years list view
-      for (int i = 0; i <= 200; i++)
-      {
-         yearsListView.getItems().add(Integer.toString(1900 + i));
-      }
+      // create years list view, the years are computed on demand from the range
+      updateYearRange();
+      yearsListView.setItems(years);
+      datePicker.minYearProperty().addListener(observable -> updateYearRange());
+      datePicker.maxYearProperty().addListener(observable -> updateYearRange());
       yearsListView.setVisible(false);
       yearsListView.setOpacity(0);
       yearsListView.setBackground(new Background(new BackgroundFill(Color.TRANSPARENT, CornerRadii.EMPTY, Insets.EMPTY)));
@@ -393,10 +402,16 @@ public class JFXDatePickerContent extends VBox
 
    private final void scrollToYear()
    {
-      int yearIndex = Integer.parseInt(selectedYearLabel.getText()) - 1900 - 2;
+      int yearIndex = years.indexOf(displayedYear.get()) - 2;
       yearsListView.scrollTo(yearIndex >= 0 ? yearIndex : yearIndex + 2);
    }
 
+   private void updateYearRange()
+   {
+      final int year = displayedYear.get();
+      years.setRange(Math.min(datePicker.getMinYear(), year), Math.max(datePicker.getMaxYear(), year));
+   }
+
    @Override
    public String getUserAgentStylesheet()
    {
@@ -714,6 +729,8 @@ public class JFXDatePickerContent extends VBox
       selectedDateLabel.setText(DateTimeFormatter.ofPattern("EEE, MMM dd").format(value));
 
       selectedYearLabel.setText(formatYear(yearMonth));
+      displayedYear.set(yearMonth.getYear());
+      updateYearRange();
       monthYearLabel.setText(formatMonth(yearMonth) + " " + formatYear(yearMonth));
 
       Chronology chrono = datePicker.getChronology();
@@ -766,24 +783,38 @@ public class JFXDatePickerContent extends VBox
          {
             Pane monthContent = (Pane) calendarPlaceHolder.getChildren().get(0);
             this.getParent().setManaged(false);
-            SnapshotParameters snapShotparams = new SnapshotParameters();
-            snapShotparams.setFill(Color.TRANSPARENT);
-            WritableImage temp = monthContent.snapshot(snapShotparams, new WritableImage((int) monthContent.getWidth(), (int) monthContent.getHeight()));
-            ImageView tempImage = new ImageView(temp);
-            calendarPlaceHolder.getChildren().add(calendarPlaceHolder.getChildren().size() - 2, tempImage);
-            TranslateTransition imageTransition = new TranslateTransition(Duration.millis(160), tempImage);
-            imageTransition.setToX(-offset * calendarPlaceHolder.getWidth());
-            imageTransition.setOnFinished((finish) -> calendarPlaceHolder.getChildren().remove(tempImage));
+            final ImageView tempImage = SnapshotBufferPool.getInstance().isSnapshotTransitions() ? SnapshotBufferPool.getInstance().snapshot(monthContent) : null;
             monthContent.setTranslateX(offset * calendarPlaceHolder.getWidth());
             TranslateTransition contentTransition = new TranslateTransition(Duration.millis(160), monthContent);
             contentTransition.setToX(0);
 
-            tempImageTransition = new ParallelTransition(imageTransition, contentTransition);
-            tempImageTransition.setOnFinished((finish) ->
+            if (tempImage != null)
             {
-               calendarPlaceHolder.getChildren().remove(tempImage);
-               this.getParent().setManaged(true);
-            });
+               calendarPlaceHolder.getChildren().add(calendarPlaceHolder.getChildren().size() - 2, tempImage);
+               TranslateTransition imageTransition = new TranslateTransition(Duration.millis(160), tempImage);
+               imageTransition.setToX(-offset * calendarPlaceHolder.getWidth());
+               imageTransition.setOnFinished((finish) -> calendarPlaceHolder.getChildren().remove(tempImage));
+
+               tempImageTransition = new ParallelTransition(imageTransition, contentTransition);
+               tempImageTransition.setOnFinished((finish) ->
+               {
+                  calendarPlaceHolder.getChildren().remove(tempImage);
+                  SnapshotBufferPool.getInstance().release(tempImage);
+                  this.getParent().setManaged(true);
+               });
+            }
+            else
+            {
+               // slide the live content in without a snapshot of the previous month
+               CacheMemento cacheMemento = new CacheMemento(monthContent);
+               cacheMemento.cache();
+               tempImageTransition = new ParallelTransition(contentTransition);
+               tempImageTransition.setOnFinished((finish) ->
+               {
+                  cacheMemento.restore();
+                  this.getParent().setManaged(true);
+               });
+            }
             tempImageTransition.play();
          }
       }
@@ -948,4 +979,81 @@ public class JFXDatePickerContent extends VBox
          return false;
       }
    }
+
+   /**
+    * consecutive years computed on demand, instead of storing an item per year
+    */
+   private static final class YearList extends ObservableListBase<Integer>
+   {
+      private int first = 0;
+      private int size = 0;
+
+      YearList()
+      {
+      }
+
+      private YearList(int first, int size)
+      {
+         this.first = first;
+         this.size = size;
+      }
+
+      void setRange(int first, int last)
+      {
+         final int first0 = Math.max(first, Year.MIN_VALUE);
+         final int size0 = Math.min(last, Year.MAX_VALUE) - first0 + 1;
+         if (first0 == this.first && size0 == this.size)
+         {
+            return;
+         }
+         final List<Integer> removed = new YearList(this.first, this.size);
+         this.first = first0;
+         this.size = size0;
+         beginChange();
+         nextReplace(0, size, removed);
+         endChange();
+      }
+
+      @Override
+      public Integer get(int index)
+      {
+         if (index < 0 || index >= size)
+         {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+         }
+         return first + index;
+      }
+
+      @Override
+      public int size()
+      {
+         return size;
+      }
+
+      @Override
+      public int indexOf(Object o)
+      {
+         if (o instanceof Integer)
+         {
+            final long index = (long) (Integer) o - first;
+            if (index >= 0 && index < size)
+            {
+               return (int) index;
+            }
+         }
+         return -1;
+      }
+
+      @Override
+      public int lastIndexOf(Object o)
+      {
+         return indexOf(o);
+      }
+
+      @Override
+      public boolean contains(Object o)
+      {
+         return indexOf(o) != -1;
+      }
+   }
 }
@@ -131,13 +131,12 @@ public class JFXDatePickerSkin extends JFXGenericPickerSkin<LocalDate>
    }
 
    @Override
-   protected Node getPopupContent()
+   protected Node createPopupContent()
    {
       if (content == null)
       {
          // different chronologies are not supported yet
-         // will be called in constructor thus must use getSkinnable instead of jfxDatePicker
-         content = new JFXDatePickerContent(((JFXDatePicker) getSkinnable()));
+         content = new JFXDatePickerContent(jfxDatePicker);
       }
       return content;
    }
@@ -170,15 +169,13 @@ public class JFXDatePickerSkin extends JFXGenericPickerSkin<LocalDate>
    @Override
    public void show()
    {
+      updatePopupContent();
       if (!jfxDatePicker.isOverLay())
       {
          super.show();
       }
-      if (content != null)
-      {
-         content.init();
-         content.clearFocus();
-      }
+      content.init();
+      content.clearFocus();
       if (dialog == null && jfxDatePicker.isOverLay())
       {
          StackPane dialogParent = jfxDatePicker.getDialogParent();
@@ -41,8 +41,10 @@ import javafx.scene.control.PopupControl;
 import javafx.scene.control.TextField;
 import javafx.scene.control.skin.ComboBoxBaseSkin;
 import javafx.scene.control.skin.ComboBoxPopupControl;
+import javafx.scene.Node;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.Pane;
+import javafx.scene.layout.StackPane;
 import javafx.stage.Window;
 
 public abstract class JFXGenericPickerSkin<T> extends ComboBoxPopupControl<T>
@@ -58,6 +60,9 @@ public abstract class JFXGenericPickerSkin<T> extends ComboBoxPopupControl<T>
    // reference of the arrow button node in getChildren (not the actual field)
    protected Pane arrowButton;
 
+   // popup root, the actual popup content is only created when the popup is first shown
+   private StackPane popupContentHolder;
+
    public JFXGenericPickerSkin(ComboBoxBase<T> comboBoxBase)
    {
       super(comboBoxBase);
@@ -96,6 +101,49 @@ public abstract class JFXGenericPickerSkin<T> extends ComboBoxPopupControl<T>
       removeParentPopupHandlers();
    }
 
+   /**
+    * the popup is created with the skin, thus a lightweight holder is returned instead of the
+    * actual content, see {@link #updatePopupContent()}. Subclasses that don't create their content
+    * lazily override this method instead of {@link #createPopupContent()}.
+    */
+   @Override
+   protected Node getPopupContent()
+   {
+      if (popupContentHolder == null)
+      {
+         popupContentHolder = new StackPane();
+      }
+      return popupContentHolder;
+   }
+
+   /**
+    * override to create the popup content when the popup is first shown
+    *
+    * @return the actual popup content, created if needed, or null if the content is provided by
+    *       {@link #getPopupContent()}
+    */
+   protected Node createPopupContent()
+   {
+      return null;
+   }
+
+   /**
+    * put the actual popup content into the popup holder, must be called before showing the popup
+    */
+   protected void updatePopupContent()
+   {
+      final Node content = createPopupContent();
+      if (content == null)
+      {
+         return;
+      }
+      getPopupContent();
+      if (popupContentHolder.getChildren().size() != 1 || popupContentHolder.getChildren().get(0) != content)
+      {
+         popupContentHolder.getChildren().setAll(content);
+      }
+   }
+
    @Override
    public void dispose()
    {
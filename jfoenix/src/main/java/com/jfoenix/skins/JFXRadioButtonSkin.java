@@ -83,7 +83,8 @@ public class JFXRadioButtonSkin extends RadioButtonSkin
          @Override
          protected double computeRippleRadius()
          {
-            double width = ripplerPane.getWidth();
+            // the ripple nodes might not be created yet when the ripple is drawn by an overlay
+            double width = getWidth() - snappedLeftInset() - snappedRightInset();
             double width2 = width * width;
             return Math.min(Math.sqrt(width2 + width2), RIPPLE_MAX_RADIUS) * 1.1 + 5;
          }
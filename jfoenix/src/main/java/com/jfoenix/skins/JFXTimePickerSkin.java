@@ -97,11 +97,11 @@ public class JFXTimePickerSkin extends JFXGenericPickerSkin<LocalTime>
    }
 
    @Override
-   protected Node getPopupContent()
+   protected Node createPopupContent()
    {
       if (content == null)
       {
-         content = new JFXTimePickerContent((JFXTimePicker) getSkinnable());
+         content = new JFXTimePickerContent(jfxTimePicker);
       }
       return content;
    }
@@ -109,15 +109,13 @@ public class JFXTimePickerSkin extends JFXGenericPickerSkin<LocalTime>
    @Override
    public void show()
    {
+      updatePopupContent();
       if (!jfxTimePicker.isOverLay())
       {
          super.show();
       }
-      if (content != null)
-      {
-         content.init();
-         content.clearFocus();
-      }
+      content.init();
+      content.clearFocus();
       if (dialog == null && jfxTimePicker.isOverLay())
       {
          StackPane dialogParent = jfxTimePicker.getDialogParent();
@@ -85,6 +85,19 @@ public class SVGGlyph extends Pane
     * @param fill           svg color
     */
    public SVGGlyph(int glyphId, String name, String svgPathContent, Paint fill)
+   {
+      this(glyphId, name, createShape(svgPathContent), fill);
+   }
+
+   /**
+    * Constructs SVGGlyph node for a specified shape and color
+    *
+    * @param glyphId integer represents the glyph id
+    * @param name    glyph name
+    * @param shape   svg shape, the glyph is empty if it's null
+    * @param fill    svg color
+    */
+   public SVGGlyph(int glyphId, String name, Shape shape, Paint fill)
    {
       this.glyphId = glyphId;
       this.name = name;
@@ -93,10 +106,10 @@ public class SVGGlyph extends Pane
 
       shapeProperty().addListener(observable ->
       {
-         Shape shape = getShape();
-         if (getShape() != null)
+         Shape currentShape = getShape();
+         if (currentShape != null)
          {
-            widthHeightRatio = shape.prefWidth(-1) / shape.prefHeight(-1);
+            widthHeightRatio = currentShape.prefWidth(-1) / currentShape.prefHeight(-1);
             if (getSize() != Region.USE_COMPUTED_SIZE)
             {
                setSizeRatio(getSize());
@@ -104,10 +117,8 @@ public class SVGGlyph extends Pane
          }
       });
 
-      if (svgPathContent != null && !svgPathContent.isEmpty())
+      if (shape != null)
       {
-         SVGPath shape = new SVGPath();
-         shape.setContent(svgPathContent);
          setShape(shape);
          setFill(fill);
       }
@@ -115,6 +126,17 @@ public class SVGGlyph extends Pane
       setPrefSize(DEFAULT_PREF_SIZE, DEFAULT_PREF_SIZE);
    }
 
+   static Shape createShape(String svgPathContent)
+   {
+      if (svgPathContent == null || svgPathContent.isEmpty())
+      {
+         return null;
+      }
+      SVGPath shape = new SVGPath();
+      shape.setContent(svgPathContent);
+      return shape;
+   }
+
    /**
     * @return current svg id
     */
@@ -0,0 +1,526 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.jfoenix.svg;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import javafx.scene.transform.Scale;
+
+/**
+ * Atlas of rasterised glyphs, used to show glyphs that are repeated many times (e.g. icons of list
+ * or table cells) as {@link ImageView} viewports of shared images instead of {@link SVGGlyph} nodes.
+ * <p>
+ * Glyphs are rasterised once for each size, fill and output scale into fixed size slots of atlas
+ * pages. Pages hold slots of a single size and are allocated as long as the memory budget allows.
+ * Once it's reached, the least recently used glyph of a page with the needed slot size is evicted,
+ * otherwise the least recently used pages that don't hold a glyph shown by a view in a scene are
+ * released. If neither is possible a new page is allocated over the budget.
+ * <p>
+ * Glyphs are rasterised in the same orientation as {@link SVGGlyphLoader#getIcoMoonGlyph(String)}.
+ * <p>
+ * <b>Note:</b> the atlas must be used from the FX application thread.
+ */
+public final class SVGGlyphAtlas
+{
+   /**
+    * default memory budget of the atlas pages, in bytes
+    */
+   public static final long DEFAULT_MEMORY_BUDGET = 16L * 1024 * 1024;
+
+   private static final int PAGE_SIZE = 512;
+   private static final int SLOT_STEP = 8;
+   // transparent gutter around each glyph, avoids sampling neighbour slots
+   private static final int PADDING = 1;
+   private static final Object ATLAS_ENTRY_KEY = new Object();
+
+   private final Map<GlyphKey, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+   private final List<Page> pages = new ArrayList<>();
+   private long memoryBudget;
+   private long memoryUsage = 0;
+
+   public SVGGlyphAtlas()
+   {
+      this(DEFAULT_MEMORY_BUDGET);
+   }
+
+   /**
+    * @param memoryBudget the memory budget of the atlas pages, in bytes
+    */
+   public SVGGlyphAtlas(long memoryBudget)
+   {
+      this.memoryBudget = memoryBudget;
+   }
+
+   /**
+    * creates a view of the specified glyph
+    *
+    * @param glyphName   the glyph name, as used in {@link SVGGlyphLoader#getGlyph(String)}
+    * @param size        the glyph size, the width/height ratio of the glyph is kept
+    * @param fill        the glyph color
+    * @param outputScale the render scale of the screen, e.g. 2 for hidpi screens
+    * @return the glyph view, or null if the glyph is not loaded
+    */
+   public ImageView createView(String glyphName, double size, Paint fill, double outputScale)
+   {
+      ImageView view = new ImageView();
+      return updateView(view, glyphName, size, fill, outputScale) ? view : null;
+   }
+
+   /**
+    * shows the specified glyph in an existing view, so cells can reuse their views
+    *
+    * @return false if the glyph is not loaded, the view is cleared in that case
+    */
+   public boolean updateView(ImageView view, String glyphName, double size, Paint fill, double outputScale)
+   {
+      final GlyphKey key = new GlyphKey(glyphName, size, fill, outputScale);
+      final Entry current = (Entry) view.getProperties().get(ATLAS_ENTRY_KEY);
+      if (current != null && current.key.equals(key) && entries.get(key) == current)
+      {
+         return true;
+      }
+      Entry entry = entries.get(key);
+      if (entry == null)
+      {
+         entry = rasterise(key);
+      }
+      detach(view);
+      if (entry == null)
+      {
+         view.setImage(null);
+         view.setViewport(null);
+         return false;
+      }
+      entry.views.add(view);
+      view.getProperties().put(ATLAS_ENTRY_KEY, entry);
+      view.setImage(entry.page.image);
+      view.setViewport(new Rectangle2D(entry.x, entry.y, entry.width, entry.height));
+      view.setFitWidth(entry.width / key.outputScale);
+      view.setFitHeight(entry.height / key.outputScale);
+      return true;
+   }
+
+   /**
+    * stop showing a glyph in the specified view, its glyph can then be evicted
+    */
+   public void detach(ImageView view)
+   {
+      final Entry entry = (Entry) view.getProperties().remove(ATLAS_ENTRY_KEY);
+      if (entry != null)
+      {
+         entry.views.remove(view);
+      }
+   }
+
+   /**
+    * remove the rasterised images of the specified glyph, views showing it are cleared
+    */
+   public void invalidate(String glyphName)
+   {
+      for (Iterator<Entry> iterator = entries.values().iterator(); iterator.hasNext(); )
+      {
+         Entry entry = iterator.next();
+         if (entry.key.glyphName.equals(glyphName))
+         {
+            iterator.remove();
+            release(entry);
+         }
+      }
+   }
+
+   /**
+    * remove all rasterised glyphs and release the atlas pages, views are cleared
+    */
+   public void clear()
+   {
+      for (Entry entry : entries.values())
+      {
+         release(entry);
+      }
+      entries.clear();
+   }
+
+   public long getMemoryBudget()
+   {
+      return memoryBudget;
+   }
+
+   /**
+    * sets the memory budget of the atlas pages, glyphs shown in a scene are never evicted so the
+    * budget can be exceeded while they are shown
+    *
+    * @param memoryBudget in bytes
+    */
+   public void setMemoryBudget(long memoryBudget)
+   {
+      this.memoryBudget = memoryBudget;
+      evictPages(0);
+   }
+
+   /**
+    * @return the memory used by the atlas pages, in bytes
+    */
+   public long getMemoryUsage()
+   {
+      return memoryUsage;
+   }
+
+   /**
+    * @return the number of rasterised glyphs
+    */
+   public int size()
+   {
+      return entries.size();
+   }
+
+   int getPageCount()
+   {
+      return pages.size();
+   }
+
+   private Entry rasterise(GlyphKey key)
+   {
+      SVGGlyph glyph = SVGGlyphLoader.getGlyph(key.glyphName);
+      if (glyph == null)
+      {
+         return null;
+      }
+      glyph.setFill(key.fill);
+      glyph.setSize(key.size);
+      // icomoon glyphs are inverted
+      glyph.setScaleY(-1);
+      glyph.resize(glyph.prefWidth(-1), glyph.prefHeight(-1));
+
+      SnapshotParameters snapShotparams = new SnapshotParameters();
+      snapShotparams.setFill(Color.TRANSPARENT);
+      snapShotparams.setTransform(new Scale(key.outputScale, key.outputScale));
+      return store(key, glyph.snapshot(snapShotparams, null));
+   }
+
+   /**
+    * stores an already rasterised glyph, as done for glyphs missing from the atlas
+    */
+   void store(String glyphName, double size, Paint fill, double outputScale, Image raster)
+   {
+      store(new GlyphKey(glyphName, size, fill, outputScale), raster);
+   }
+
+   private Entry store(GlyphKey key, Image raster)
+   {
+      final int width = (int) raster.getWidth();
+      final int height = (int) raster.getHeight();
+
+      final int slotSize = slotSize(Math.max(width, height) + 2 * PADDING);
+      final Page page = allocatePage(slotSize);
+      final int slot = page.allocate();
+      final int slotX = slot % page.columns * slotSize;
+      final int slotY = slot / page.columns * slotSize;
+      // clear the pixels of the previous glyph of the slot
+      page.image.getPixelWriter().setPixels(slotX, slotY, slotSize, slotSize, PixelFormat.getIntArgbPreInstance(), new int[slotSize * slotSize], 0, slotSize);
+      page.image.getPixelWriter().setPixels(slotX + PADDING, slotY + PADDING, width, height, raster.getPixelReader(), 0, 0);
+
+      Entry entry = new Entry(key, page, slot, slotX + PADDING, slotY + PADDING, width, height);
+      entries.put(key, entry);
+      return entry;
+   }
+
+   private static int slotSize(int size)
+   {
+      return (size + SLOT_STEP - 1) / SLOT_STEP * SLOT_STEP;
+   }
+
+   /**
+    * @return a page of the specified slot size that has a free slot
+    */
+   private Page allocatePage(int slotSize)
+   {
+      Page page = findPage(slotSize);
+      if (page != null)
+      {
+         return page;
+      }
+      final int pageSize = Math.max(PAGE_SIZE, slotSize);
+      final long required = (long) pageSize * pageSize * 4;
+      if (memoryUsage + required > memoryBudget)
+      {
+         page = evictSlot(slotSize);
+         if (page != null)
+         {
+            return page;
+         }
+         evictPages(required);
+      }
+      // shown glyphs are never evicted, the budget is exceeded if no page could be freed
+      page = new Page(pageSize, slotSize);
+      pages.add(page);
+      memoryUsage += page.getMemory();
+      return page;
+   }
+
+   private Page findPage(int slotSize)
+   {
+      for (Page page : pages)
+      {
+         if (page.slotSize == slotSize && page.hasFreeSlot())
+         {
+            return page;
+         }
+      }
+      return null;
+   }
+
+   /**
+    * evict the least recently used glyph that is not shown from a page of the specified slot size
+    *
+    * @return the page of the freed slot, or null if there is no such glyph
+    */
+   private Page evictSlot(int slotSize)
+   {
+      for (Iterator<Entry> iterator = entries.values().iterator(); iterator.hasNext(); )
+      {
+         Entry entry = iterator.next();
+         if (entry.page.slotSize == slotSize && !entry.isShown())
+         {
+            iterator.remove();
+            // the page is reused even if it's left empty, so it must stay allocated
+            release(entry, true);
+            return entry.page;
+         }
+      }
+      return null;
+   }
+
+   /**
+    * release the least recently used pages whose glyphs are not shown, until the specified memory
+    * fits in the budget. Pages holding a shown glyph are kept, so no glyph is evicted unless its
+    * whole page is released.
+    */
+   private void evictPages(long required)
+   {
+      while (memoryUsage + required > memoryBudget)
+      {
+         // entries are in access order, the last access of a page is its last entry
+         final Map<Page, Integer> lastAccess = new HashMap<>();
+         final Set<Page> shownPages = new HashSet<>();
+         int index = 0;
+         for (Entry entry : entries.values())
+         {
+            lastAccess.put(entry.page, index++);
+            if (entry.isShown())
+            {
+               shownPages.add(entry.page);
+            }
+         }
+         Page eldest = null;
+         for (Map.Entry<Page, Integer> pageAccess : lastAccess.entrySet())
+         {
+            if (!shownPages.contains(pageAccess.getKey()) && (eldest == null || pageAccess.getValue() < lastAccess.get(eldest)))
+            {
+               eldest = pageAccess.getKey();
+            }
+         }
+         if (eldest == null)
+         {
+            return;
+         }
+         for (Iterator<Entry> iterator = entries.values().iterator(); iterator.hasNext(); )
+         {
+            Entry entry = iterator.next();
+            if (entry.page == eldest)
+            {
+               iterator.remove();
+               release(entry);
+            }
+         }
+      }
+   }
+
+   private void release(Entry entry)
+   {
+      release(entry, false);
+   }
+
+   private void release(Entry entry, boolean keepPage)
+   {
+      for (ImageView view : new ArrayList<>(entry.views))
+      {
+         view.getProperties().remove(ATLAS_ENTRY_KEY);
+         view.setImage(null);
+         view.setViewport(null);
+      }
+      entry.views.clear();
+      entry.page.free(entry.slot);
+      if (!keepPage && entry.page.isEmpty())
+      {
+         pages.remove(entry.page);
+         memoryUsage -= entry.page.getMemory();
+      }
+   }
+
+   private static final class GlyphKey
+   {
+      private final String glyphName;
+      private final double size;
+      private final Paint fill;
+      private final double outputScale;
+      private final int hash;
+
+      GlyphKey(String glyphName, double size, Paint fill, double outputScale)
+      {
+         this.glyphName = glyphName;
+         this.size = size;
+         this.fill = fill;
+         this.outputScale = outputScale;
+         this.hash = Objects.hash(glyphName, size, fill, outputScale);
+      }
+
+      @Override
+      public boolean equals(Object o)
+      {
+         if (this == o)
+         {
+            return true;
+         }
+         if (!(o instanceof GlyphKey))
+         {
+            return false;
+         }
+         GlyphKey other = (GlyphKey) o;
+         return size == other.size && outputScale == other.outputScale && glyphName.equals(other.glyphName) && Objects.equals(fill, other.fill);
+      }
+
+      @Override
+      public int hashCode()
+      {
+         return hash;
+      }
+   }
+
+   private static final class Entry
+   {
+      private final GlyphKey key;
+      private final Page page;
+      private final int slot;
+      private final int x;
+      private final int y;
+      private final int width;
+      private final int height;
+      private final Set<ImageView> views = Collections.newSetFromMap(new WeakHashMap<>());
+
+      Entry(GlyphKey key, Page page, int slot, int x, int y, int width, int height)
+      {
+         this.key = key;
+         this.page = page;
+         this.slot = slot;
+         this.x = x;
+         this.y = y;
+         this.width = width;
+         this.height = height;
+      }
+
+      boolean isShown()
+      {
+         for (ImageView view : views)
+         {
+            if (view != null && view.getScene() != null)
+            {
+               return true;
+            }
+         }
+         return false;
+      }
+   }
+
+   /**
+    * atlas image divided into slots of the same size
+    */
+   private static final class Page
+   {
+      private final WritableImage image;
+      private final int slotSize;
+      private final int columns;
+      private final boolean[] used;
+      private int usedCount = 0;
+
+      Page(int pageSize, int slotSize)
+      {
+         this.image = new WritableImage(pageSize, pageSize);
+         this.slotSize = slotSize;
+         this.columns = pageSize / slotSize;
+         this.used = new boolean[columns * columns];
+      }
+
+      boolean hasFreeSlot()
+      {
+         return usedCount < used.length;
+      }
+
+      boolean isEmpty()
+      {
+         return usedCount == 0;
+      }
+
+      int allocate()
+      {
+         for (int i = 0; i < used.length; i++)
+         {
+            if (!used[i])
+            {
+               used[i] = true;
+               usedCount++;
+               return i;
+            }
+         }
+         throw new IllegalStateException("Atlas page is full");
+      }
+
+      void free(int slot)
+      {
+         if (used[slot])
+         {
+            used[slot] = false;
+            usedCount--;
+         }
+      }
+
+      long getMemory()
+      {
+         return (long) image.getWidth() * (long) image.getHeight() * 4;
+      }
+   }
+}
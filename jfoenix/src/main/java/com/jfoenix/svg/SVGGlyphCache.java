@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.jfoenix.svg;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.Supplier;
+
+import javafx.scene.shape.Shape;
+
+/**
+ * Bounded cache of the glyph shapes created by {@link SVGGlyphLoader}, shared by all the
+ * {@link SVGGlyph} nodes of the same glyph.
+ * <p>
+ * {@link SVGGlyph} uses its shape as the region shape, so the size of the glyph is applied by scaling
+ * the shape and its fill is applied as the region background. A cached shape is parsed once and its
+ * geometry is reused by every glyph node, the least recently used shapes are evicted once the
+ * capacity is reached.
+ * <p>
+ * <b>Note:</b> cached shapes are shared, they must not be modified.
+ */
+public final class SVGGlyphCache
+{
+   public static final int DEFAULT_CAPACITY = 1024;
+
+   private static final SVGGlyphCache INSTANCE = new SVGGlyphCache();
+
+   public static SVGGlyphCache getInstance()
+   {
+      return INSTANCE;
+   }
+
+   private final LinkedHashMap<String, Shape> shapes = new LinkedHashMap<>(16, 0.75f, true);
+   private int capacity = DEFAULT_CAPACITY;
+   private long hitCount = 0;
+   private long missCount = 0;
+
+   private SVGGlyphCache()
+   {
+   }
+
+   /**
+    * @param glyphName the glyph name, as used in {@link SVGGlyphLoader#getGlyph(String)}
+    * @param factory   creates the shape of the glyph if it's not cached
+    * @return the shared shape of the glyph, or null if the factory returns null
+    */
+   synchronized Shape getShape(String glyphName, Supplier<Shape> factory)
+   {
+      Shape shape = shapes.get(glyphName);
+      if (shape != null)
+      {
+         hitCount++;
+         return shape;
+      }
+      missCount++;
+      shape = factory.get();
+      if (shape != null && capacity > 0)
+      {
+         shapes.put(glyphName, shape);
+         trim();
+      }
+      return shape;
+   }
+
+   /**
+    * remove the cached shape of the specified glyph
+    */
+   synchronized void invalidate(String glyphName)
+   {
+      shapes.remove(glyphName);
+   }
+
+   /**
+    * remove all cached shapes, the hit/miss counters are not reset
+    */
+   public synchronized void clear()
+   {
+      shapes.clear();
+   }
+
+   /**
+    * @return the number of requests served from the cache
+    */
+   public synchronized long getHitCount()
+   {
+      return hitCount;
+   }
+
+   /**
+    * @return the number of requests that created a new shape
+    */
+   public synchronized long getMissCount()
+   {
+      return missCount;
+   }
+
+   public synchronized void resetCounters()
+   {
+      hitCount = 0;
+      missCount = 0;
+   }
+
+   /**
+    * @return the number of cached shapes
+    */
+   public synchronized int size()
+   {
+      return shapes.size();
+   }
+
+   public synchronized int getCapacity()
+   {
+      return capacity;
+   }
+
+   /**
+    * sets the maximum number of cached shapes, a value <= 0 disables the cache
+    *
+    * @param capacity the number of shapes
+    */
+   public synchronized void setCapacity(int capacity)
+   {
+      this.capacity = capacity;
+      trim();
+   }
+
+   private void trim()
+   {
+      final Iterator<String> iterator = shapes.keySet().iterator();
+      while (shapes.size() > Math.max(capacity, 0) && iterator.hasNext())
+      {
+         iterator.next();
+         iterator.remove();
+      }
+   }
+}
@@ -24,30 +24,39 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.StringReader;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
-import org.w3c.dom.Document;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
+import com.jfoenix.utils.JFXUtilities;
 
 import javafx.beans.binding.Bindings;
+import javafx.scene.image.ImageView;
 import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
 import javafx.scene.transform.Scale;
 import javafx.scene.transform.Translate;
 
 /**
  * will load icomoon svg font file, it will create a map of the available svg glyphs. the user can
  * retrieve the svg glyph using its name.
+ * <p>
+ * Fonts are streamed and only the name and path data of each glyph are kept, the glyph node is
+ * created when it's requested. Fonts can be loaded from a background thread.
+ * <p>
+ * Glyph nodes of the same glyph share their shape through {@link SVGGlyphCache}. Glyphs repeated
+ * many times can also be shown as rasterised images using {@link #getGlyphImage(String, double, Paint, double)}.
  *
  * @author Shadi Shaheen
  * @version 1.0
@@ -56,11 +65,57 @@ import javafx.scene.transform.Translate;
 public class SVGGlyphLoader
 {
 
-   private static final HashMap<String, SVGGlyphBuilder> glyphsMap = new HashMap<>();
+   private static final Map<String, SVGGlyphBuilder> glyphsMap = new ConcurrentHashMap<>();
+
+   private static final List<SVGGlyphPack> glyphPacks = new CopyOnWriteArrayList<>();
+
+   private static volatile SVGGlyphAtlas glyphAtlas;
 
    public static SVGGlyph getGlyph(String glyphName)
    {
-      return glyphsMap.get(glyphName).build();
+      SVGGlyphBuilder builder = glyphsMap.get(glyphName);
+      return builder == null ? buildPackGlyph(glyphName) : builder.build(glyphName);
+   }
+
+   private static SVGGlyph buildPackGlyph(String glyphName)
+   {
+      // the last loaded pack wins, as in the glyphs map
+      for (int i = glyphPacks.size() - 1; i >= 0; i--)
+      {
+         SVGGlyph glyph = glyphPacks.get(i).build(glyphName);
+         if (glyph != null)
+         {
+            return glyph;
+         }
+      }
+      return null;
+   }
+
+   /**
+    * will rasterise the glyph into the shared glyph atlas, see {@link SVGGlyphAtlas}. must be called
+    * from the FX application thread.
+    *
+    * @param glyphName   the glyph name
+    * @param size        the glyph size
+    * @param fill        the glyph color
+    * @param outputScale the render scale of the screen
+    * @return image view of the glyph, or null if the glyph is not loaded
+    */
+   public static ImageView getGlyphImage(String glyphName, double size, Paint fill, double outputScale)
+   {
+      return getGlyphAtlas().createView(glyphName, size, fill, outputScale);
+   }
+
+   /**
+    * @return the shared glyph atlas, created when it's first used
+    */
+   public static SVGGlyphAtlas getGlyphAtlas()
+   {
+      if (glyphAtlas == null)
+      {
+         glyphAtlas = new SVGGlyphAtlas();
+      }
+      return glyphAtlas;
    }
 
    /**
@@ -71,10 +126,9 @@ public class SVGGlyphLoader
     */
    public static SVGGlyph getIcoMoonGlyph(String glyphName) throws Exception
    {
-      SVGGlyphBuilder builder = glyphsMap.get(glyphName);
-      if (builder == null)
+      SVGGlyph glyph = getGlyph(glyphName);
+      if (glyph == null)
          throw new Exception("Glyph '" + glyphName + "' not found!");
-      SVGGlyph glyph = builder.build();
       // we need to apply transformation to correct the icon since
       // its being inverted after importing from icomoon
       glyph.getTransforms().add(new Scale(1, -1));
@@ -89,7 +143,16 @@ public class SVGGlyphLoader
     */
    public static Set<String> getAllGlyphsIDs()
    {
-      return glyphsMap.keySet();
+      if (glyphPacks.isEmpty())
+      {
+         return glyphsMap.keySet();
+      }
+      Set<String> glyphIds = new HashSet<>(glyphsMap.keySet());
+      for (SVGGlyphPack pack : glyphPacks)
+      {
+         glyphIds.addAll(pack.getGlyphIds());
+      }
+      return glyphIds;
    }
 
    /**
@@ -100,39 +163,9 @@ public class SVGGlyphLoader
     */
    public static void loadGlyphsFont(URL url) throws IOException
    {
-      try
+      try (InputStream stream = url.openStream())
       {
-         DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-         DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
-
-         docBuilder.setEntityResolver((publicId, systemId) ->
-         {
-            // disable dtd entites at runtime
-            return new InputSource(new StringReader(""));
-         });
-
-         File svgFontFile = new File(url.toURI());
-         Document doc = docBuilder.parse(svgFontFile);
-         doc.getDocumentElement().normalize();
-
-         NodeList glyphsList = doc.getElementsByTagName("glyph");
-         for (int i = 0; i < glyphsList.getLength(); i++)
-         {
-            Node glyph = glyphsList.item(i);
-            Node glyphName = glyph.getAttributes().getNamedItem("glyph-name");
-            if (glyphName == null)
-            {
-               continue;
-            }
-
-            String glyphId = glyphName.getNodeValue();
-            SVGGlyphBuilder glyphPane = new SVGGlyphBuilder(i, glyphId, glyph.getAttributes().getNamedItem("d").getNodeValue());
-            glyphsMap.put(svgFontFile.getName() + "." + glyphId, glyphPane);
-         }
-      }
-      catch (ParserConfigurationException | SAXException | URISyntaxException e)
-      {
-         e.printStackTrace();
+         loadGlyphs(stream, getFileName(url));
       }
    }
 
@@ -147,39 +180,124 @@ public class SVGGlyphLoader
    {
       try
       {
-         DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-         DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
+         loadGlyphs(stream, keyPrefix);
+      }
+      finally
+      {
+         stream.close();
+      }
+   }
 
-         docBuilder.setEntityResolver((publicId, systemId) ->
-         {
-            // disable dtd entites at runtime
-            return new InputSource(new StringReader(""));
-         });
+   /**
+    * stream the glyph elements of the font, only the glyph names and path data are kept. glyphs are
+    * added to the map once the whole font is read, so the font can be loaded from any thread.
+    */
+   private static void loadGlyphs(InputStream stream, String keyPrefix)
+   {
+      Map<String, SVGGlyphBuilder> glyphs = new HashMap<>();
+      try
+      {
+         readGlyphs(stream, (glyphIndex, glyphId, svgPathContent) -> glyphs.put(keyPrefix + "." + glyphId,
+                                                                                new SVGGlyphBuilder(glyphIndex, glyphId, svgPathContent)));
+      }
+      catch (XMLStreamException e)
+      {
+         e.printStackTrace();
+      }
+      glyphsMap.putAll(glyphs);
+      for (String glyphName : glyphs.keySet())
+      {
+         SVGGlyphCache.getInstance().invalidate(glyphName);
+      }
+      invalidateAtlas(glyphs.keySet());
+   }
+
+   /**
+    * callback of the named glyphs read from an svg font
+    */
+   @FunctionalInterface
+   interface GlyphConsumer
+   {
+      void accept(int glyphIndex, String glyphId, String svgPathContent);
+   }
 
-         Document doc = docBuilder.parse(stream);
-         doc.getDocumentElement().normalize();
+   /**
+    * stream the named glyph elements of an svg font to the specified consumer
+    */
+   static void readGlyphs(InputStream stream, GlyphConsumer consumer) throws XMLStreamException
+   {
+      XMLStreamReader reader = null;
+      try
+      {
+         XMLInputFactory factory = XMLInputFactory.newInstance();
+         // disable dtd entites at runtime
+         factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+         factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+         reader = factory.createXMLStreamReader(stream);
 
-         NodeList glyphsList = doc.getElementsByTagName("glyph");
-         for (int i = 0; i < glyphsList.getLength(); i++)
+         int index = 0;
+         while (reader.hasNext())
          {
-            Node glyph = glyphsList.item(i);
-            Node glyphName = glyph.getAttributes().getNamedItem("glyph-name");
-            if (glyphName == null)
+            if (reader.next() != XMLStreamConstants.START_ELEMENT || !"glyph".equals(reader.getLocalName()))
             {
                continue;
             }
+            final int glyphIndex = index++;
+            String glyphId = reader.getAttributeValue(null, "glyph-name");
+            if (glyphId == null)
+            {
+               continue;
+            }
+            consumer.accept(glyphIndex, glyphId, reader.getAttributeValue(null, "d"));
+         }
+      }
+      finally
+      {
+         if (reader != null)
+         {
+            try
+            {
+               reader.close();
+            }
+            catch (XMLStreamException e)
+            {
+               e.printStackTrace();
+            }
+         }
+      }
+   }
+
+   /**
+    * will load SVG icons from a glyph pack created by {@link SVGGlyphPack}. glyph pack files are
+    * memory mapped, glyphs are looked up in the pack when they are requested.
+    *
+    * @param url       of the glyph pack
+    * @param keyPrefix will be used as a prefix of the SVG icons names
+    * @throws IOException
+    */
+   public static void loadGlyphsPack(URL url, String keyPrefix) throws IOException
+   {
+      glyphPacks.add(SVGGlyphPack.open(url, keyPrefix));
+      // the pack may replace cached glyphs of the same prefix
+      SVGGlyphCache.getInstance().clear();
+      invalidateAtlas(null);
+   }
 
-            String glyphId = glyphName.getNodeValue();
-            SVGGlyphBuilder glyphPane = new SVGGlyphBuilder(i, glyphId, glyph.getAttributes().getNamedItem("d").getNodeValue());
-            glyphsMap.put(keyPrefix + "." + glyphId, glyphPane);
+   private static String getFileName(URL url)
+   {
+      try
+      {
+         if ("file".equals(url.getProtocol()))
+         {
+            return new File(url.toURI()).getName();
          }
-         stream.close();
       }
-      catch (ParserConfigurationException | SAXException e)
+      catch (URISyntaxException | IllegalArgumentException e)
       {
-         // TODO Auto-generated catch block
-         e.printStackTrace();
+         // fall back to the url path
       }
+      String path = url.getPath();
+      return path.substring(path.lastIndexOf('/') + 1);
    }
 
    /**
@@ -218,6 +336,34 @@ public class SVGGlyphLoader
    public static void clear()
    {
       glyphsMap.clear();
+      glyphPacks.clear();
+      SVGGlyphCache.getInstance().clear();
+      invalidateAtlas(null);
+   }
+
+   /**
+    * remove the specified glyphs from the atlas on the FX thread, all glyphs are removed if null
+    */
+   private static void invalidateAtlas(Set<String> glyphNames)
+   {
+      // the atlas is only created on the FX thread
+      final SVGGlyphAtlas atlas = glyphAtlas;
+      if (atlas == null)
+      {
+         return;
+      }
+      JFXUtilities.runInFX(() ->
+      {
+         if (glyphNames == null)
+         {
+            atlas.clear();
+            return;
+         }
+         for (String glyphName : glyphNames)
+         {
+            atlas.invalidate(glyphName);
+         }
+      });
    }
 
    private static String extractSvgPath(String svgString)
@@ -262,9 +408,9 @@ public class SVGGlyphLoader
 
    private static final class SVGGlyphBuilder
    {
-      private int glyphId;
-      private String name;
-      private String svgPathContent;
+      private final int glyphId;
+      private final String name;
+      private final String svgPathContent;
 
       SVGGlyphBuilder(int glyphId, String name, String svgPathContent)
       {
@@ -273,9 +419,9 @@ public class SVGGlyphLoader
          this.svgPathContent = svgPathContent;
       }
 
-      SVGGlyph build()
+      SVGGlyph build(String glyphName)
       {
-         return new SVGGlyph(glyphId, name, svgPathContent, Color.BLACK);
+         return new SVGGlyph(glyphId, name, SVGGlyphCache.getInstance().getShape(glyphName, () -> SVGGlyph.createShape(svgPathContent)), Color.BLACK);
       }
    }
 }
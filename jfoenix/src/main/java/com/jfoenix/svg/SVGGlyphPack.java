@@ -0,0 +1,578 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.jfoenix.svg;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.stream.XMLStreamException;
+
+import javafx.scene.paint.Color;
+import javafx.scene.shape.ArcTo;
+import javafx.scene.shape.ClosePath;
+import javafx.scene.shape.CubicCurveTo;
+import javafx.scene.shape.LineTo;
+import javafx.scene.shape.MoveTo;
+import javafx.scene.shape.PathElement;
+import javafx.scene.shape.QuadCurveTo;
+
+/**
+ * Precompiled glyph pack, a binary form of an svg font that is loaded without parsing any xml or
+ * path data.
+ * <p>
+ * Glyph packs are created at build time from svg fonts using {@link #convert(InputStream, OutputStream)}
+ * and loaded using {@link SVGGlyphLoader#loadGlyphsPack(URL, String)}.
+ * <p>
+ * A pack holds an index of the glyphs sorted by name, followed by the glyph names and the glyph
+ * paths. Paths are stored as absolute move/line/cubic/quad/arc/close commands with their float
+ * coordinates, so glyphs are built as {@link javafx.scene.shape.Path} shapes straight from the pack.
+ */
+public final class SVGGlyphPack
+{
+   private static final int MAGIC = 0x4A464750;
+   private static final int VERSION = 1;
+   // magic, version, glyph count
+   private static final int HEADER_SIZE = 12;
+   // name offset, name length, glyph id, path offset
+   private static final int ENTRY_SIZE = 16;
+
+   private static final byte MOVE_TO = 'M';
+   private static final byte LINE_TO = 'L';
+   private static final byte CUBIC_TO = 'C';
+   private static final byte QUAD_TO = 'Q';
+   private static final byte ARC_TO = 'A';
+   private static final byte CLOSE = 'Z';
+
+   private final ByteBuffer buffer;
+   private final String keyPrefix;
+   private final int glyphCount;
+
+   private SVGGlyphPack(ByteBuffer buffer, String keyPrefix) throws IOException
+   {
+      if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC)
+      {
+         throw new IOException("Invalid glyph pack");
+      }
+      if (buffer.getInt(4) != VERSION)
+      {
+         throw new IOException("Unsupported glyph pack version " + buffer.getInt(4));
+      }
+      this.buffer = buffer;
+      this.keyPrefix = keyPrefix + ".";
+      this.glyphCount = buffer.getInt(8);
+   }
+
+   /**
+    * opens the glyph pack at the specified url, files are memory mapped while other urls are read in
+    * memory
+    */
+   static SVGGlyphPack open(URL url, String keyPrefix) throws IOException
+   {
+      if ("file".equals(url.getProtocol()))
+      {
+         try (FileChannel channel = FileChannel.open(Paths.get(url.toURI()), StandardOpenOption.READ))
+         {
+            return new SVGGlyphPack(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), keyPrefix);
+         }
+         catch (URISyntaxException e)
+         {
+            throw new IOException(e);
+         }
+      }
+      try (InputStream stream = url.openStream())
+      {
+         return new SVGGlyphPack(ByteBuffer.wrap(stream.readAllBytes()), keyPrefix);
+      }
+   }
+
+   /**
+    * @return the glyph of the specified key, or null if it's not in this pack
+    */
+   SVGGlyph build(String key)
+   {
+      if (!key.startsWith(keyPrefix))
+      {
+         return null;
+      }
+      final String name = key.substring(keyPrefix.length());
+      final int entry = find(name.getBytes(StandardCharsets.UTF_8));
+      if (entry < 0)
+      {
+         return null;
+      }
+      final int base = HEADER_SIZE + entry * ENTRY_SIZE;
+      final javafx.scene.shape.Shape shape = SVGGlyphCache.getInstance().getShape(key, () -> createPath(buffer.getInt(base + 12)));
+      return new SVGGlyph(buffer.getInt(base + 8), name, shape, Color.BLACK);
+   }
+
+   /**
+    * @return the keys of all glyphs in this pack
+    */
+   Set<String> getGlyphIds()
+   {
+      Set<String> glyphIds = new HashSet<>();
+      for (int entry = 0; entry < glyphCount; entry++)
+      {
+         final int base = HEADER_SIZE + entry * ENTRY_SIZE;
+         final byte[] name = new byte[buffer.getInt(base + 4)];
+         for (int i = 0; i < name.length; i++)
+         {
+            name[i] = buffer.get(buffer.getInt(base) + i);
+         }
+         glyphIds.add(keyPrefix + new String(name, StandardCharsets.UTF_8));
+      }
+      return glyphIds;
+   }
+
+   /**
+    * binary search of the glyph name in the index, only absolute reads are used so the pack can be
+    * read from several threads
+    */
+   private int find(byte[] name)
+   {
+      int low = 0;
+      int high = glyphCount - 1;
+      while (low <= high)
+      {
+         final int mid = (low + high) >>> 1;
+         final int cmp = compareName(mid, name);
+         if (cmp < 0)
+         {
+            low = mid + 1;
+         }
+         else if (cmp > 0)
+         {
+            high = mid - 1;
+         }
+         else
+         {
+            return mid;
+         }
+      }
+      return -1;
+   }
+
+   private int compareName(int entry, byte[] name)
+   {
+      final int base = HEADER_SIZE + entry * ENTRY_SIZE;
+      final int offset = buffer.getInt(base);
+      final int length = buffer.getInt(base + 4);
+      for (int i = 0; i < length && i < name.length; i++)
+      {
+         final int cmp = (buffer.get(offset + i) & 0xff) - (name[i] & 0xff);
+         if (cmp != 0)
+         {
+            return cmp;
+         }
+      }
+      return length - name.length;
+   }
+
+   private javafx.scene.shape.Path createPath(int offset)
+   {
+      final int commandCount = buffer.getInt(offset);
+      if (commandCount == 0)
+      {
+         return null;
+      }
+      int coord = offset + 8 + align(commandCount);
+      final PathElement[] elements = new PathElement[commandCount];
+      for (int i = 0; i < commandCount; i++)
+      {
+         switch (buffer.get(offset + 8 + i))
+         {
+            case MOVE_TO:
+               elements[i] = new MoveTo(buffer.getFloat(coord), buffer.getFloat(coord + 4));
+               coord += 8;
+               break;
+            case LINE_TO:
+               elements[i] = new LineTo(buffer.getFloat(coord), buffer.getFloat(coord + 4));
+               coord += 8;
+               break;
+            case CUBIC_TO:
+               elements[i] = new CubicCurveTo(buffer.getFloat(coord),
+                                              buffer.getFloat(coord + 4),
+                                              buffer.getFloat(coord + 8),
+                                              buffer.getFloat(coord + 12),
+                                              buffer.getFloat(coord + 16),
+                                              buffer.getFloat(coord + 20));
+               coord += 24;
+               break;
+            case QUAD_TO:
+               elements[i] = new QuadCurveTo(buffer.getFloat(coord), buffer.getFloat(coord + 4), buffer.getFloat(coord + 8), buffer.getFloat(coord + 12));
+               coord += 16;
+               break;
+            case ARC_TO:
+               elements[i] = new ArcTo(buffer.getFloat(coord),
+                                       buffer.getFloat(coord + 4),
+                                       buffer.getFloat(coord + 8),
+                                       buffer.getFloat(coord + 20),
+                                       buffer.getFloat(coord + 24),
+                                       buffer.getFloat(coord + 12) != 0,
+                                       buffer.getFloat(coord + 16) != 0);
+               coord += 28;
+               break;
+            default:
+               elements[i] = new ClosePath();
+               break;
+         }
+      }
+      return new javafx.scene.shape.Path(elements);
+   }
+
+   private static int align(int size)
+   {
+      return (size + 3) & ~3;
+   }
+
+   /***************************************************************************
+    * * Pack Conversion * *
+    **************************************************************************/
+
+   /**
+    * converts the specified svg font into a glyph pack
+    *
+    * @param svgFont input stream of the svg font file, it's not closed
+    * @param pack    output stream of the glyph pack, it's not closed
+    * @throws IOException if the font can't be read or one of its paths is invalid
+    */
+   public static void convert(InputStream svgFont, OutputStream pack) throws IOException
+   {
+      // glyphs with the same name replace each other, as in the glyphs map of SVGGlyphLoader
+      Map<String, CompiledGlyph> glyphsByName = new LinkedHashMap<>();
+      List<IOException> errors = new ArrayList<>(1);
+      try
+      {
+         SVGGlyphLoader.readGlyphs(svgFont, (glyphIndex, glyphId, svgPathContent) ->
+         {
+            try
+            {
+               glyphsByName.put(glyphId, new CompiledGlyph(glyphIndex, glyphId, svgPathContent));
+            }
+            catch (IOException e)
+            {
+               errors.add(e);
+            }
+         });
+      }
+      catch (XMLStreamException e)
+      {
+         throw new IOException(e);
+      }
+      if (!errors.isEmpty())
+      {
+         throw errors.get(0);
+      }
+
+      CompiledGlyph[] glyphs = glyphsByName.values().toArray(new CompiledGlyph[0]);
+      Arrays.sort(glyphs, (a, b) -> Arrays.compareUnsigned(a.name, b.name));
+
+      int namesOffset = HEADER_SIZE + glyphs.length * ENTRY_SIZE;
+      int namesSize = 0;
+      for (CompiledGlyph glyph : glyphs)
+      {
+         namesSize += glyph.name.length;
+      }
+      final int pathsOffset = align(namesOffset + namesSize);
+
+      DataOutputStream out = new DataOutputStream(new BufferedOutputStream(pack));
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(glyphs.length);
+      int nameOffset = namesOffset;
+      int pathOffset = pathsOffset;
+      for (CompiledGlyph glyph : glyphs)
+      {
+         out.writeInt(nameOffset);
+         out.writeInt(glyph.name.length);
+         out.writeInt(glyph.glyphId);
+         out.writeInt(pathOffset);
+         nameOffset += glyph.name.length;
+         pathOffset += glyph.size();
+      }
+      for (CompiledGlyph glyph : glyphs)
+      {
+         out.write(glyph.name);
+      }
+      out.write(new byte[pathsOffset - namesOffset - namesSize]);
+      for (CompiledGlyph glyph : glyphs)
+      {
+         out.writeInt(glyph.commandCount);
+         out.writeInt(glyph.coordCount);
+         out.write(glyph.commands, 0, glyph.commandCount);
+         out.write(new byte[align(glyph.commandCount) - glyph.commandCount]);
+         for (int i = 0; i < glyph.coordCount; i++)
+         {
+            out.writeFloat(glyph.coords[i]);
+         }
+      }
+      out.flush();
+   }
+
+   /**
+    * glyph path converted into absolute commands and their coordinates
+    */
+   private static final class CompiledGlyph
+   {
+      private final int glyphId;
+      private final byte[] name;
+      private final String path;
+      private byte[] commands = new byte[16];
+      private int commandCount = 0;
+      private float[] coords = new float[64];
+      private int coordCount = 0;
+
+      // path parsing state
+      private int position = 0;
+      private double x = 0;
+      private double y = 0;
+
+      CompiledGlyph(int glyphId, String name, String path) throws IOException
+      {
+         this.glyphId = glyphId;
+         this.name = name.getBytes(StandardCharsets.UTF_8);
+         this.path = path == null ? "" : path;
+         compile();
+      }
+
+      int size()
+      {
+         return 8 + align(commandCount) + coordCount * 4;
+      }
+
+      private void compile() throws IOException
+      {
+         char command = 0;
+         double startX = 0;
+         double startY = 0;
+         // last control point, used by the smooth curve commands
+         double controlX = 0;
+         double controlY = 0;
+         byte lastCurve = 0;
+         while (skipSeparators())
+         {
+            final char c = path.charAt(position);
+            if (Character.isLetter(c))
+            {
+               command = c;
+               position++;
+            }
+            else if (command == 0)
+            {
+               throw new IOException("Invalid path data of glyph '" + new String(name, StandardCharsets.UTF_8) + "' at " + position);
+            }
+            final boolean relative = Character.isLowerCase(command);
+            final double baseX = relative ? x : 0;
+            final double baseY = relative ? y : 0;
+            byte curve = 0;
+            switch (Character.toUpperCase(command))
+            {
+               case 'M':
+                  x = baseX + nextNumber();
+                  y = baseY + nextNumber();
+                  add(MOVE_TO, x, y);
+                  startX = x;
+                  startY = y;
+                  // following coordinates are implicit line commands
+                  command = relative ? 'l' : 'L';
+                  break;
+               case 'L':
+                  x = baseX + nextNumber();
+                  y = baseY + nextNumber();
+                  add(LINE_TO, x, y);
+                  break;
+               case 'H':
+                  x = baseX + nextNumber();
+                  add(LINE_TO, x, y);
+                  break;
+               case 'V':
+                  y = baseY + nextNumber();
+                  add(LINE_TO, x, y);
+                  break;
+               case 'C':
+               case 'S':
+               {
+                  double x1;
+                  double y1;
+                  if (Character.toUpperCase(command) == 'C')
+                  {
+                     x1 = baseX + nextNumber();
+                     y1 = baseY + nextNumber();
+                  }
+                  else
+                  {
+                     x1 = lastCurve == CUBIC_TO ? 2 * x - controlX : x;
+                     y1 = lastCurve == CUBIC_TO ? 2 * y - controlY : y;
+                  }
+                  controlX = baseX + nextNumber();
+                  controlY = baseY + nextNumber();
+                  x = baseX + nextNumber();
+                  y = baseY + nextNumber();
+                  add(CUBIC_TO, x1, y1, controlX, controlY, x, y);
+                  curve = CUBIC_TO;
+                  break;
+               }
+               case 'Q':
+               case 'T':
+                  if (Character.toUpperCase(command) == 'Q')
+                  {
+                     controlX = baseX + nextNumber();
+                     controlY = baseY + nextNumber();
+                  }
+                  else
+                  {
+                     controlX = lastCurve == QUAD_TO ? 2 * x - controlX : x;
+                     controlY = lastCurve == QUAD_TO ? 2 * y - controlY : y;
+                  }
+                  x = baseX + nextNumber();
+                  y = baseY + nextNumber();
+                  add(QUAD_TO, controlX, controlY, x, y);
+                  curve = QUAD_TO;
+                  break;
+               case 'A':
+               {
+                  final double radiusX = nextNumber();
+                  final double radiusY = nextNumber();
+                  final double rotation = nextNumber();
+                  final double largeArc = nextFlag();
+                  final double sweep = nextFlag();
+                  x = baseX + nextNumber();
+                  y = baseY + nextNumber();
+                  add(ARC_TO, radiusX, radiusY, rotation, largeArc, sweep, x, y);
+                  break;
+               }
+               case 'Z':
+                  add(CLOSE);
+                  x = startX;
+                  y = startY;
+                  // a close command doesn't take any coordinates
+                  command = 0;
+                  break;
+               default:
+                  throw new IOException("Unsupported path command '" + command + "' in glyph '" + new String(name, StandardCharsets.UTF_8) + "'");
+            }
+            lastCurve = curve;
+         }
+      }
+
+      private void add(byte command, double... values)
+      {
+         if (commandCount == commands.length)
+         {
+            commands = Arrays.copyOf(commands, commandCount * 2);
+         }
+         commands[commandCount++] = command;
+         if (coordCount + values.length > coords.length)
+         {
+            coords = Arrays.copyOf(coords, Math.max(coords.length * 2, coordCount + values.length));
+         }
+         for (double value : values)
+         {
+            coords[coordCount++] = (float) value;
+         }
+      }
+
+      /**
+       * @return false if the end of the path is reached
+       */
+      private boolean skipSeparators()
+      {
+         while (position < path.length() && (Character.isWhitespace(path.charAt(position)) || path.charAt(position) == ','))
+         {
+            position++;
+         }
+         return position < path.length();
+      }
+
+      private double nextFlag() throws IOException
+      {
+         // flags may not be separated from the next value
+         if (!skipSeparators() || (path.charAt(position) != '0' && path.charAt(position) != '1'))
+         {
+            throw new IOException("Invalid arc flag in glyph '" + new String(name, StandardCharsets.UTF_8) + "' at " + position);
+         }
+         return path.charAt(position++) - '0';
+      }
+
+      private double nextNumber() throws IOException
+      {
+         if (!skipSeparators())
+         {
+            throw new IOException("Missing path coordinate in glyph '" + new String(name, StandardCharsets.UTF_8) + "'");
+         }
+         final int start = position;
+         if (path.charAt(position) == '-' || path.charAt(position) == '+')
+         {
+            position++;
+         }
+         boolean dot = false;
+         while (position < path.length())
+         {
+            final char c = path.charAt(position);
+            if (c == '.' && !dot)
+            {
+               dot = true;
+            }
+            else if (!Character.isDigit(c))
+            {
+               break;
+            }
+            position++;
+         }
+         if (position < path.length() && (path.charAt(position) == 'e' || path.charAt(position) == 'E'))
+         {
+            position++;
+            if (position < path.length() && (path.charAt(position) == '-' || path.charAt(position) == '+'))
+            {
+               position++;
+            }
+            while (position < path.length() && Character.isDigit(path.charAt(position)))
+            {
+               position++;
+            }
+         }
+         try
+         {
+            return Double.parseDouble(path.substring(start, position));
+         }
+         catch (NumberFormatException e)
+         {
+            throw new IOException("Invalid path coordinate in glyph '" + new String(name, StandardCharsets.UTF_8) + "' at " + start);
+         }
+      }
+   }
+}
@@ -0,0 +1,303 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.jfoenix.transitions;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import javafx.animation.AnimationTimer;
+
+/**
+ * Shared pulse scheduler that multiplexes all active JFoenix animations into a single
+ * {@link AnimationTimer}. The timer is registered with the toolkit only while at least one
+ * {@link PulseReceiver} is active.
+ * <p>
+ * Receivers are stored per {@link Priority} in struct-of-arrays buckets. {@link Priority#HIGH}
+ * receivers are pulsed every frame, while {@link Priority#NORMAL} receivers are pulsed until the frame
+ * budget is exceeded; the remaining ones are pulsed first on the next frame.
+ * <p>
+ * <b>Note:</b> the scheduler must be used from the FX application thread.
+ */
+public final class JFXAnimationScheduler
+{
+
+   /**
+    * callback invoked once per pulse while registered
+    */
+   @FunctionalInterface
+   public interface PulseReceiver
+   {
+      /**
+       * @param now the timestamp of the current frame given in nanoseconds
+       */
+      void handle(long now);
+   }
+
+   public enum Priority
+   {
+      /**
+       * pulsed every frame regardless of the frame budget
+       */
+      HIGH,
+      /**
+       * pulsed while the frame budget is not exceeded
+       */
+      NORMAL
+   }
+
+   /**
+    * default frame budget of the animation work, in nanoseconds
+    */
+   public static final long DEFAULT_FRAME_BUDGET = 8_000_000L;
+
+   private static final JFXAnimationScheduler INSTANCE = new JFXAnimationScheduler();
+
+   public static JFXAnimationScheduler getInstance()
+   {
+      return INSTANCE;
+   }
+
+   private final Bucket[] buckets = new Bucket[Priority.values().length];
+   private final Map<PulseReceiver, Bucket> registered = new IdentityHashMap<>();
+   private final AnimationTimer timer = new AnimationTimer()
+   {
+      @Override
+      public void handle(long now)
+      {
+         pulse(now);
+      }
+   };
+   private boolean timerRunning = false;
+   private long frameBudget = DEFAULT_FRAME_BUDGET;
+   private long deferredPulses = 0;
+
+   private JFXAnimationScheduler()
+   {
+      for (int i = 0; i < buckets.length; i++)
+      {
+         buckets[i] = new Bucket();
+      }
+   }
+
+   public void register(PulseReceiver receiver)
+   {
+      register(receiver, Priority.NORMAL);
+   }
+
+   /**
+    * register the specified receiver to be pulsed every frame, registering an already registered
+    * receiver only updates its priority.
+    *
+    * @param receiver to be pulsed
+    * @param priority of the receiver
+    */
+   public void register(PulseReceiver receiver, Priority priority)
+   {
+      final Bucket bucket = buckets[priority.ordinal()];
+      final Bucket current = registered.get(receiver);
+      if (current == bucket)
+      {
+         return;
+      }
+      if (current != null)
+      {
+         current.remove(receiver);
+      }
+      bucket.add(receiver);
+      registered.put(receiver, bucket);
+      if (!timerRunning)
+      {
+         timerRunning = true;
+         timer.start();
+      }
+   }
+
+   public void unregister(PulseReceiver receiver)
+   {
+      final Bucket bucket = registered.remove(receiver);
+      if (bucket == null)
+      {
+         return;
+      }
+      bucket.remove(receiver);
+      if (registered.isEmpty() && timerRunning)
+      {
+         timerRunning = false;
+         timer.stop();
+      }
+   }
+
+   public boolean isRegistered(PulseReceiver receiver)
+   {
+      return registered.containsKey(receiver);
+   }
+
+   /**
+    * @return the number of registered receivers
+    */
+   public int getActiveCount()
+   {
+      return registered.size();
+   }
+
+   /**
+    * @return the number of {@link Priority#NORMAL} pulses postponed to the next frame because the
+    *       frame budget was exceeded
+    */
+   public long getDeferredPulses()
+   {
+      return deferredPulses;
+   }
+
+   public long getFrameBudget()
+   {
+      return frameBudget;
+   }
+
+   /**
+    * sets the time budget of the animation work per frame
+    *
+    * @param frameBudget in nanoseconds, a value <= 0 disables the budget
+    */
+   public void setFrameBudget(long frameBudget)
+   {
+      this.frameBudget = frameBudget;
+   }
+
+   private void pulse(long now)
+   {
+      final long frameStart = System.nanoTime();
+      buckets[Priority.HIGH.ordinal()].pulse(now, -1);
+      final long deadline = frameBudget > 0 ? frameStart + frameBudget : -1;
+      deferredPulses += buckets[Priority.NORMAL.ordinal()].pulse(now, deadline);
+   }
+
+   /**
+    * receivers of a priority stored as parallel arrays, removed receivers are nulled during a pulse
+    * and compacted afterwards so receivers can unregister themselves while being pulsed
+    */
+   private static final class Bucket
+   {
+      private PulseReceiver[] receivers = new PulseReceiver[16];
+      private long[] lastPulses = new long[16];
+      private int size = 0;
+      private int cursor = 0;
+      private boolean pulsing = false;
+      private boolean dirty = false;
+
+      void add(PulseReceiver receiver)
+      {
+         if (size == receivers.length)
+         {
+            receivers = Arrays.copyOf(receivers, size * 2);
+            lastPulses = Arrays.copyOf(lastPulses, size * 2);
+         }
+         receivers[size] = receiver;
+         lastPulses[size] = 0;
+         size++;
+      }
+
+      void remove(PulseReceiver receiver)
+      {
+         for (int i = 0; i < size; i++)
+         {
+            if (receivers[i] == receiver)
+            {
+               receivers[i] = null;
+               dirty = true;
+               break;
+            }
+         }
+         if (!pulsing)
+         {
+            compact();
+         }
+      }
+
+      /**
+       * @param deadline the {@link System#nanoTime()} after which the remaining receivers are
+       *                 deferred, or -1 to pulse all of them
+       * @return the number of deferred receivers
+       */
+      int pulse(long now, long deadline)
+      {
+         // receivers added while pulsing are pulsed on the next frame
+         final int count = size;
+         if (count == 0)
+         {
+            return 0;
+         }
+         pulsing = true;
+         int pulsed = 0;
+         try
+         {
+            int index = cursor < count ? cursor : 0;
+            for (; pulsed < count; pulsed++)
+            {
+               if (deadline != -1 && pulsed > 0 && System.nanoTime() > deadline)
+               {
+                  break;
+               }
+               final PulseReceiver receiver = receivers[index];
+               if (receiver != null && lastPulses[index] != now)
+               {
+                  lastPulses[index] = now;
+                  receiver.handle(now);
+               }
+               index = index + 1 == count ? 0 : index + 1;
+            }
+            cursor = index;
+         }
+         finally
+         {
+            pulsing = false;
+            compact();
+         }
+         return count - pulsed;
+      }
+
+      private void compact()
+      {
+         if (!dirty)
+         {
+            return;
+         }
+         int target = 0;
+         for (int i = 0; i < size; i++)
+         {
+            if (receivers[i] != null)
+            {
+               receivers[target] = receivers[i];
+               lastPulses[target] = lastPulses[i];
+               target++;
+            }
+            else if (i < cursor)
+            {
+               // keep the cursor on the same receiver
+               cursor--;
+            }
+         }
+         Arrays.fill(receivers, target, size, null);
+         size = target;
+         dirty = false;
+      }
+   }
+}
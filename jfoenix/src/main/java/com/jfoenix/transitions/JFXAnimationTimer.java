@@ -20,6 +20,7 @@
 package com.jfoenix.transitions;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -27,6 +28,7 @@ import java.util.Set;
 import java.util.function.Supplier;
 
 import javafx.animation.AnimationTimer;
+import javafx.beans.value.WritableDoubleValue;
 import javafx.beans.value.WritableValue;
 import javafx.scene.Node;
 import javafx.util.Duration;
@@ -34,16 +36,21 @@ import javafx.util.Duration;
 /**
  * Custom AnimationTimer that can be created the same way as a timeline, however it doesn't behave
  * the same yet. it only animates in one direction, it doesn't support animation 0 -> 1 -> 0.5
+ * <p>
+ * The timer is pulsed by the shared {@link JFXAnimationScheduler} instead of being registered with
+ * the toolkit on its own.
  *
  * @author Shadi Shaheen
  * @version 1.0
  * @since 2017-09-21
  */
 
-public class JFXAnimationTimer extends AnimationTimer
+public class JFXAnimationTimer extends AnimationTimer implements JFXAnimationScheduler.PulseReceiver
 {
 
    private Set<AnimationHandler> animationHandlers = new HashSet<>();
+   // handlers snapshot iterated every pulse
+   private AnimationHandler[] activeHandlers = new AnimationHandler[0];
    private long startTime = -1;
    private boolean running = false;
    private List<CacheMemento> caches = new ArrayList<>();
@@ -93,10 +100,11 @@ public class JFXAnimationTimer extends AnimationTimer
    @Override
    public void start()
    {
-      super.start();
+      JFXAnimationScheduler.getInstance().register(this);
       running = true;
       startTime = -1;
-      for (AnimationHandler animationHandler : animationHandlers)
+      activeHandlers = animationHandlers.toArray(new AnimationHandler[0]);
+      for (AnimationHandler animationHandler : activeHandlers)
       {
          animationHandler.init();
       }
@@ -112,7 +120,7 @@ public class JFXAnimationTimer extends AnimationTimer
       startTime = startTime == -1 ? now : startTime;
       totalElapsedMilliseconds = (now - startTime) / 1000000.0;
       boolean stop = true;
-      for (AnimationHandler handler : animationHandlers)
+      for (AnimationHandler handler : activeHandlers)
       {
          handler.animate(totalElapsedMilliseconds);
          if (!handler.finished)
@@ -134,13 +142,11 @@ public class JFXAnimationTimer extends AnimationTimer
    {
       if (isRunning())
       {
-         super.stop();
          for (AnimationHandler handler : animationHandlers)
          {
             handler.reverse(totalElapsedMilliseconds);
          }
          startTime = -1;
-         super.start();
       }
       else
       {
@@ -151,7 +157,7 @@ public class JFXAnimationTimer extends AnimationTimer
    @Override
    public void stop()
    {
-      super.stop();
+      JFXAnimationScheduler.getInstance().unregister(this);
       running = false;
       for (AnimationHandler handler : animationHandlers)
       {
@@ -171,7 +177,7 @@ public class JFXAnimationTimer extends AnimationTimer
    {
       if (isRunning())
       {
-         super.stop();
+         JFXAnimationScheduler.getInstance().unregister(this);
       }
       for (AnimationHandler handler : animationHandlers)
       {
@@ -212,6 +218,7 @@ public class JFXAnimationTimer extends AnimationTimer
          handler.dispose();
       }
       animationHandlers.clear();
+      activeHandlers = new AnimationHandler[0];
    }
 
    static class AnimationHandler
@@ -222,8 +229,16 @@ public class JFXAnimationTimer extends AnimationTimer
       private Supplier<Boolean> animationCondition = null;
       private boolean finished = false;
 
-      private HashMap<WritableValue<?>, Object> initialValuesMap = new HashMap<>();
-      private HashMap<WritableValue<?>, Object> endValuesMap = new HashMap<>();
+      /*
+       * key values snapshot taken when the animation starts, start and end values are stored in flat
+       * arrays indexed by key value so that double targets are animated without boxing
+       */
+      private JFXKeyValue<?>[] animatedKeyValues = new JFXKeyValue<?>[0];
+      private boolean[] doubleValues = new boolean[0];
+      private double[] doubleStartValues = new double[0];
+      private double[] doubleEndValues = new double[0];
+      private Object[] startValues = new Object[0];
+      private Object[] endValues = new Object[0];
 
       AnimationHandler(Duration duration, Supplier<Boolean> animationCondition, Set<JFXKeyValue<?>> keyValues)
       {
@@ -236,21 +251,17 @@ public class JFXAnimationTimer extends AnimationTimer
       public void init()
       {
          finished = animationCondition == null ? false : !animationCondition.get();
-         for (JFXKeyValue keyValue : keyValues)
+         animatedKeyValues = keyValues.toArray(new JFXKeyValue<?>[0]);
+         final int size = animatedKeyValues.length;
+         if (doubleValues.length != size)
          {
-            if (keyValue.getTarget() != null)
-            {
-               // replaced putIfAbsent for mobile compatibility
-               if (!initialValuesMap.containsKey(keyValue.getTarget()))
-               {
-                  initialValuesMap.put(keyValue.getTarget(), keyValue.getTarget().getValue());
-               }
-               if (!endValuesMap.containsKey(keyValue.getTarget()))
-               {
-                  endValuesMap.put(keyValue.getTarget(), keyValue.getEndValue());
-               }
-            }
+            doubleValues = new boolean[size];
+            doubleStartValues = new double[size];
+            doubleEndValues = new double[size];
+            startValues = new Object[size];
+            endValues = new Object[size];
          }
+         updateValues();
       }
 
       void reverse(double now)
@@ -258,13 +269,28 @@ public class JFXAnimationTimer extends AnimationTimer
          finished = animationCondition == null ? false : !animationCondition.get();
          currentDuration = duration - (currentDuration - now);
          // update initial values
-         for (JFXKeyValue keyValue : keyValues)
+         updateValues();
+      }
+
+      private void updateValues()
+      {
+         for (int i = 0; i < animatedKeyValues.length; i++)
          {
+            final JFXKeyValue<?> keyValue = animatedKeyValues[i];
             final WritableValue target = keyValue.getTarget();
-            if (target != null)
+            final Object endValue = target == null ? null : keyValue.getEndValue();
+            doubleValues[i] = target instanceof WritableDoubleValue && endValue instanceof Number;
+            if (doubleValues[i])
+            {
+               doubleStartValues[i] = ((WritableDoubleValue) target).get();
+               doubleEndValues[i] = ((Number) endValue).doubleValue();
+               startValues[i] = null;
+               endValues[i] = null;
+            }
+            else
             {
-               initialValuesMap.put(target, target.getValue());
-               endValuesMap.put(target, keyValue.getEndValue());
+               startValues[i] = target == null ? null : target.getValue();
+               endValues[i] = endValue;
             }
          }
       }
@@ -279,15 +305,30 @@ public class JFXAnimationTimer extends AnimationTimer
          }
          if (now <= currentDuration)
          {
-            for (JFXKeyValue keyValue : keyValues)
+            final double fraction = now / currentDuration;
+            for (int i = 0; i < animatedKeyValues.length; i++)
             {
-               if (keyValue.isValid())
+               final JFXKeyValue<?> keyValue = animatedKeyValues[i];
+               if (!keyValue.isValid())
+               {
+                  continue;
+               }
+               final WritableValue target = keyValue.getTarget();
+               if (doubleValues[i] && target instanceof WritableDoubleValue)
+               {
+                  final WritableDoubleValue doubleTarget = (WritableDoubleValue) target;
+                  final double endValue = doubleEndValues[i];
+                  if (doubleTarget.get() != endValue)
+                  {
+                     doubleTarget.set(keyValue.getInterpolator().interpolate(doubleStartValues[i], endValue, fraction));
+                  }
+               }
+               else
                {
-                  final WritableValue target = keyValue.getTarget();
-                  final Object endValue = endValuesMap.get(target);
+                  final Object endValue = endValues[i];
                   if (endValue != null && target != null && !target.getValue().equals(endValue))
                   {
-                     target.setValue(keyValue.getInterpolator().interpolate(initialValuesMap.get(target), endValue, now / currentDuration));
+                     target.setValue(keyValue.getInterpolator().interpolate(startValues[i], endValue, fraction));
                   }
                }
             }
@@ -297,7 +338,7 @@ public class JFXAnimationTimer extends AnimationTimer
             if (!finished)
             {
                finished = true;
-               for (JFXKeyValue keyValue : keyValues)
+               for (JFXKeyValue keyValue : animatedKeyValues)
                {
                   if (keyValue.isValid())
                   {
@@ -339,13 +380,14 @@ public class JFXAnimationTimer extends AnimationTimer
 
       public void clear()
       {
-         initialValuesMap.clear();
-         endValuesMap.clear();
+         Arrays.fill(startValues, null);
+         Arrays.fill(endValues, null);
       }
 
       void dispose()
       {
          clear();
+         animatedKeyValues = new JFXKeyValue<?>[0];
          keyValues.clear();
       }
    }
@@ -20,24 +20,27 @@
 package com.jfoenix.utils;
 
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-
-import com.sun.javafx.geom.RectBounds;
-import com.sun.javafx.scene.text.TextLayout;
-import com.sun.javafx.scene.text.TextLine;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javafx.application.Platform;
 import javafx.beans.InvalidationListener;
-import javafx.beans.WeakInvalidationListener;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.geometry.BoundingBox;
 import javafx.geometry.Bounds;
@@ -47,12 +50,22 @@ import javafx.scene.Parent;
 import javafx.scene.effect.BlendMode;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.Paint;
+import javafx.scene.shape.LineTo;
+import javafx.scene.shape.MoveTo;
+import javafx.scene.shape.PathElement;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.text.Text;
 
 /**
  * JFXHighlighter is used to highlight Text and LabeledText nodes (in a specific {@link Parent})
- * that matches the user query.
+ * that matches the user query, or several queries highlighted with different paints.
+ * <p>
+ * The text nodes of the parent are indexed once and the index is kept up to date using scene graph
+ * listeners. When a query extends the previous one only the previous matches and the changed text
+ * nodes are searched, and only the highlights that changed are added or removed.
+ * <p>
+ * The texts are read on the FX thread and matched on a worker thread, the highlights are then
+ * applied on the FX thread in a single pulse.
  *
  * @author Shadi Shaheen
  * @version 1.0
@@ -61,17 +74,40 @@ import javafx.scene.text.Text;
 public class JFXHighlighter
 {
 
+   /**
+    * maximum number of hidden rectangles kept in the parent to be reused by next queries
+    */
+   private static final int MAX_POOL_SIZE = 512;
+
+   private static final ExecutorService SEARCH_EXECUTOR = Executors.newSingleThreadExecutor(runnable ->
+   {
+      Thread thread = new Thread(runnable);
+      thread.setName("JFXHighlighter Search Thread");
+      thread.setDaemon(true);
+      return thread;
+   });
+
    private Parent parent;
-   private HashMap<Node, List<Rectangle>> boxes = new HashMap<>();
+   private TextIndex index;
+   private HashMap<Text, List<Highlight>> boxes = new HashMap<>();
+   private ArrayDeque<HighLightRectangle> pool = new ArrayDeque<>();
    private ObjectProperty<Paint> paint = new SimpleObjectProperty<>(Color.rgb(255, 0, 0, 0.4));
 
-   private Method textLayoutMethod;
+   /**
+    * the folded previous terms and the text nodes that matched them
+    */
+   private String[] lastTerms;
+   private Set<Text> lastMatches = new HashSet<>();
+
+   /**
+    * incremented on every query, an in-flight search is cancelled once a newer query is requested
+    */
+   private final AtomicLong searchGeneration = new AtomicLong();
+
    private Field parentChildrenField;
    {
       try
       {
-         textLayoutMethod = Text.class.getDeclaredMethod("getTextLayout");
-         textLayoutMethod.setAccessible(true);
          parentChildrenField = Parent.class.getDeclaredField("children");
          parentChildrenField.setAccessible(true);
       }
@@ -87,173 +123,804 @@ public class JFXHighlighter
     * @param pane  node to search into its text
     * @param query search text
     */
-   public synchronized void highlight(Parent pane, String query)
+   public void highlight(Parent pane, String query)
+   {
+      highlight(pane, query == null ? Collections.emptyMap() : Collections.singletonMap(query, null));
+   }
+
+   /**
+    * highlights the text matching any of the specified terms in the specified pane, all terms are
+    * matched in a single pass over each text.
+    * <p>
+    * The text is matched on a worker thread and the highlights are applied on the FX thread once
+    * matching is done, a newer query cancels the older one.
+    *
+    * @param pane  node to search into its text
+    * @param terms search terms mapped to their highlight paint, terms mapped to null are highlighted
+    *              using {@link #paintProperty()}
+    */
+   public void highlight(Parent pane, Map<String, Paint> terms)
    {
-      if (this.parent != null && !boxes.isEmpty())
+      final long generation = searchGeneration.incrementAndGet();
+      final Map<String, Paint> searchTerms = new LinkedHashMap<>(terms);
+      JFXUtilities.runInFX(() -> search(generation, pane, searchTerms));
+   }
+
+   /**
+    * take a snapshot of the candidate texts on the FX thread and match them on the worker thread
+    */
+   private void search(long generation, Parent pane, Map<String, Paint> terms)
+   {
+      if (generation != searchGeneration.get())
+      {
+         return;
+      }
+      if (pane != parent)
       {
-         clear();
+         clearHighlights();
+         releasePool();
+         if (index != null)
+         {
+            index.dispose();
+         }
+         parent = pane;
+         index = new TextIndex(pane);
       }
-      if (query == null || query.isEmpty())
+
+      // fold the terms, the first paint of a folded term is used
+      final Map<String, Paint> foldedTerms = new LinkedHashMap<>();
+      for (Map.Entry<String, Paint> term : terms.entrySet())
+      {
+         if (term.getKey() != null && !term.getKey().isEmpty())
+         {
+            foldedTerms.putIfAbsent(fold(term.getKey()), term.getValue());
+         }
+      }
+      if (foldedTerms.isEmpty())
+      {
+         clearHighlights();
          return;
+      }
+      final String[] foldedQueries = foldedTerms.keySet().toArray(new String[0]);
+      final Paint[] paints = foldedTerms.values().toArray(new Paint[0]);
 
-      this.parent = pane;
+      // changed texts are only taken once the search is applied, so a cancelled search loses nothing
+      Collection<Text> candidates;
+      if (lastTerms != null && extendsTerms(foldedQueries, lastTerms))
+      {
+         // any text containing one of the new terms contains one of the previous terms
+         Set<Text> narrowed = new HashSet<>(lastMatches);
+         narrowed.addAll(index.changed);
+         candidates = narrowed;
+      }
+      else
+      {
+         candidates = index.entries.keySet();
+      }
 
-      Set<Node> nodes = getTextNodes(pane);
+      final Map<Text, String> snapshot = new HashMap<>(candidates.size());
+      for (Text text : candidates)
+      {
+         final TextEntry entry = index.entries.get(text);
+         if (entry != null && text.isVisible() && text.getScene() != null)
+         {
+            snapshot.put(text, entry.getFoldedText());
+         }
+      }
+
+      final Parent searchParent = parent;
+      SEARCH_EXECUTOR.execute(() ->
+      {
+         final TermMatcher matcher = new TermMatcher(foldedQueries);
+         final Map<Text, int[]> matches = new HashMap<>();
+         int count = 0;
+         for (Map.Entry<Text, String> entry : snapshot.entrySet())
+         {
+            if ((++count & 0xFF) == 0 && generation != searchGeneration.get())
+            {
+               return;
+            }
+            final int[] textMatches = matcher.match(entry.getValue());
+            if (textMatches.length > 0)
+            {
+               matches.put(entry.getKey(), textMatches);
+            }
+         }
+         Platform.runLater(() -> apply(generation, searchParent, matcher, paints, snapshot, matches));
+      });
+   }
+
+   /**
+    * apply the matches computed on the worker thread, texts changed since the snapshot are matched
+    * again
+    */
+   private void apply(long generation, Parent searchParent, TermMatcher matcher, Paint[] paints, Map<Text, String> snapshot, Map<Text, int[]> matches)
+   {
+      if (generation != searchGeneration.get() || searchParent != parent)
+      {
+         return;
+      }
+      for (Text text : index.takeChanged())
+      {
+         final TextEntry entry = index.entries.get(text);
+         final String snapshotText = snapshot.get(text);
+         if (entry != null && snapshotText != null && snapshotText.equals(entry.getFoldedText()))
+         {
+            continue;
+         }
+         matches.remove(text);
+         if (entry != null && text.isVisible() && text.getScene() != null)
+         {
+            final int[] textMatches = matcher.match(entry.getFoldedText());
+            if (textMatches.length > 0)
+            {
+               matches.put(text, textMatches);
+            }
+         }
+      }
+      // texts removed since the snapshot
+      matches.keySet().removeIf(text -> !index.entries.containsKey(text));
 
-      ArrayList<Rectangle> allRectangles = new ArrayList<>();
-      for (Node node : nodes)
+      List<Rectangle> removed = new ArrayList<>();
+      List<Rectangle> added = new ArrayList<>();
+      for (Iterator<Map.Entry<Text, List<Highlight>>> iterator = boxes.entrySet().iterator(); iterator.hasNext(); )
       {
-         Text text = ((Text) node);
-         final int beginIndex = text.getText().toLowerCase().indexOf(query.toLowerCase());
-         if (beginIndex > -1 && node.isVisible() && node.getScene() != null)
+         Map.Entry<Text, List<Highlight>> entry = iterator.next();
+         if (!matches.containsKey(entry.getKey()))
          {
-            ArrayList<Bounds> boundingBoxes = getMatchingBounds(query, text);
-            ArrayList<Rectangle> rectangles = new ArrayList<>();
-            for (Bounds boundingBox : boundingBoxes)
+            iterator.remove();
+            index.entries.get(entry.getKey()).setHighlighted(false);
+            for (Highlight highlight : entry.getValue())
             {
-               HighLightRectangle rect = new HighLightRectangle(text);
-               rect.setCacheHint(CacheHint.SPEED);
-               rect.setCache(true);
-               rect.setMouseTransparent(true);
-               rect.setBlendMode(BlendMode.MULTIPLY);
-               rect.fillProperty().bind(paintProperty());
-               rect.setManaged(false);
-               rect.setX(boundingBox.getMinX());
-               rect.setY(boundingBox.getMinY());
-               rect.setWidth(boundingBox.getWidth());
-               rect.setHeight(boundingBox.getHeight());
-               rectangles.add(rect);
-               allRectangles.add(rect);
+               release(highlight, removed);
             }
-            boxes.put(node, rectangles);
          }
       }
+      for (Map.Entry<Text, int[]> entry : matches.entrySet())
+      {
+         updateHighlights(entry.getKey(), entry.getValue(), paints, added, removed);
+      }
 
-      JFXUtilities.runInFXAndWait(() -> getParentChildren(pane).addAll(allRectangles));
+      lastTerms = matcher.terms;
+      lastMatches = new HashSet<>(matches.keySet());
+      ObservableList<Node> children = getParentChildren(parent);
+      if (!removed.isEmpty())
+      {
+         children.removeAll(new HashSet<>(removed));
+      }
+      children.addAll(added);
    }
 
-   private class HighLightRectangle extends Rectangle
+   /**
+    * @return true if each term extends one of the previous terms
+    */
+   private static boolean extendsTerms(String[] terms, String[] previousTerms)
    {
-      // add listener to remove the current rectangle if text was changed
-      private InvalidationListener listener;
+      for (String term : terms)
+      {
+         boolean extendsTerm = false;
+         for (String previousTerm : previousTerms)
+         {
+            if (term.startsWith(previousTerm))
+            {
+               extendsTerm = true;
+               break;
+            }
+         }
+         if (!extendsTerm)
+         {
+            return false;
+         }
+      }
+      return true;
+   }
 
-      public HighLightRectangle(Text text)
+   /**
+    * update the highlights of the specified text, highlights of unchanged matches are kept
+    *
+    * @param matches the matches of the text as (term, start, end) triples
+    */
+   private void updateHighlights(Text text, int[] matches, Paint[] paints, List<Rectangle> added, List<Rectangle> removed)
+   {
+      final TextEntry entry = index.entries.get(text);
+      final List<Highlight> current = boxes.getOrDefault(text, new ArrayList<>());
+      final Map<Long, Highlight> currentByRange = new HashMap<>();
+      for (Highlight highlight : current)
       {
-         listener = observable -> clear(text);
-         text.textProperty().addListener(new WeakInvalidationListener(listener));
-         text.localToSceneTransformProperty().addListener(new WeakInvalidationListener(listener));
+         currentByRange.put(highlight.getRange(), highlight);
       }
 
-      private void clear(Text text)
+      List<Highlight> highlights = new ArrayList<>();
+      for (int i = 0; i < matches.length; i += 3)
       {
-         final List<Rectangle> rectangles = boxes.get(text);
-         if (rectangles != null && !rectangles.isEmpty())
-            Platform.runLater(() -> getParentChildren(parent).removeAll(rectangles));
+         final Paint highlightPaint = paints[matches[i]];
+         final int beginIndex = matches[i + 1];
+         final int endIndex = matches[i + 2];
+         Highlight highlight = currentByRange.remove(Highlight.range(beginIndex, endIndex));
+         if (highlight == null)
+         {
+            highlight = new Highlight(beginIndex, endIndex);
+            for (Bounds bounds : getMatchingBounds(text, beginIndex, endIndex))
+            {
+               HighLightRectangle rect = acquire(added);
+               rect.setX(bounds.getMinX());
+               rect.setY(bounds.getMinY());
+               rect.setWidth(bounds.getWidth());
+               rect.setHeight(bounds.getHeight());
+               highlight.rectangles.add(rect);
+            }
+         }
+         // the paint of a term might be changed
+         for (HighLightRectangle rect : highlight.rectangles)
+         {
+            rect.setPaint(highlightPaint);
+         }
+         highlights.add(highlight);
+      }
+      for (Highlight highlight : currentByRange.values())
+      {
+         release(highlight, removed);
       }
+      boxes.put(text, highlights);
+      entry.setHighlighted(true);
    }
 
-   private Set<Node> getTextNodes(Parent pane)
+   /**
+    * @param added collects the created rectangles, they must be added to the parent
+    * @return a pooled rectangle, or a new one if the pool is empty
+    */
+   private HighLightRectangle acquire(List<Rectangle> added)
    {
-      Set<Node> labeledTextNodes = pane.lookupAll("LabeledText");
-      Set<Node> textNodes = pane.lookupAll("Text");
-      Set<Node> nodes = new HashSet<>();
-      nodes.addAll(labeledTextNodes);
-      nodes.addAll(textNodes);
-      return nodes;
+      HighLightRectangle rect = pool.pollLast();
+      if (rect == null)
+      {
+         rect = new HighLightRectangle();
+         added.add(rect);
+      }
+      else
+      {
+         rect.setVisible(true);
+      }
+      return rect;
    }
 
-   private ObservableList<Node> getParentChildren(Parent parent)
+   /**
+    * hide the rectangles of the highlight and keep them in the pool
+    *
+    * @param removed collects the rectangles that don't fit in the pool, they must be removed from the
+    *                parent
+    */
+   private void release(Highlight highlight, List<Rectangle> removed)
    {
-      try
+      for (HighLightRectangle rect : highlight.rectangles)
       {
-         return (ObservableList<Node>) parentChildrenField.get(parent);
+         if (pool.size() < MAX_POOL_SIZE)
+         {
+            rect.setVisible(false);
+            pool.add(rect);
+         }
+         else
+         {
+            removed.add(rect);
+         }
       }
-      catch (IllegalAccessException e)
+   }
+
+   private void releasePool()
+   {
+      if (parent != null && !pool.isEmpty())
       {
-         e.printStackTrace();
+         getParentChildren(parent).removeAll(new HashSet<>(pool));
       }
-      return null;
+      pool.clear();
    }
 
-   private ArrayList<Bounds> getMatchingBounds(String query, Text text)
+   /**
+    * remove the highlights of the specified text once it's changed or moved, it's searched again on
+    * the next query
+    */
+   private void invalidate(Text text)
    {
-      // find local text bounds in parent
-      Bounds textBounds = parent.sceneToLocal(text.localToScene(text.getBoundsInLocal()));
+      index.changed.add(text);
+      final List<Highlight> highlights = boxes.remove(text);
+      if (highlights != null)
+      {
+         index.entries.get(text).setHighlighted(false);
+         List<Rectangle> removed = new ArrayList<>();
+         for (Highlight highlight : highlights)
+         {
+            release(highlight, removed);
+         }
+         if (!removed.isEmpty())
+         {
+            final Parent highlightParent = parent;
+            Platform.runLater(() -> getParentChildren(highlightParent).removeAll(new HashSet<>(removed)));
+         }
+      }
+   }
 
-      ArrayList<Bounds> rectBounds = new ArrayList<>();
+   private void clearHighlights()
+   {
+      List<Rectangle> removed = new ArrayList<>();
+      for (Map.Entry<Text, List<Highlight>> entry : boxes.entrySet())
+      {
+         index.entries.get(entry.getKey()).setHighlighted(false);
+         for (Highlight highlight : entry.getValue())
+         {
+            release(highlight, removed);
+         }
+      }
+      boxes.clear();
+      lastTerms = null;
+      lastMatches = new HashSet<>();
+      if (parent != null && !removed.isEmpty())
+      {
+         getParentChildren(parent).removeAll(new HashSet<>(removed));
+      }
+   }
 
-      TextLayout textLayout = null;
-      try
+   /**
+    * lower case the text char by char, so indices of the folded text match the original text
+    */
+   private static String fold(String text)
+   {
+      char[] chars = text.toCharArray();
+      for (int i = 0; i < chars.length; i++)
       {
-         textLayout = (TextLayout) textLayoutMethod.invoke(text);
+         chars[i] = Character.toLowerCase(chars[i]);
       }
-      catch (IllegalAccessException e)
+      return new String(chars);
+   }
+
+   private class HighLightRectangle extends Rectangle
+   {
+      public HighLightRectangle()
       {
-         e.printStackTrace();
+         setCacheHint(CacheHint.SPEED);
+         setCache(true);
+         setMouseTransparent(true);
+         setBlendMode(BlendMode.MULTIPLY);
+         fillProperty().bind(paintProperty());
+         setManaged(false);
       }
-      catch (InvocationTargetException e)
+
+      /**
+       * @param paint of the term, or null to use the highlighter paint
+       */
+      void setPaint(Paint paint)
       {
-         e.printStackTrace();
+         if (paint == null)
+         {
+            fillProperty().bind(paintProperty());
+         }
+         else
+         {
+            fillProperty().unbind();
+            setFill(paint);
+         }
       }
+   }
 
-      int queryLength = query.length();
-      TextLine[] lines = textLayout.getLines();
-      // handle matches in all lines
-      for (int i = 0; i < lines.length; i++)
+   /**
+    * Aho-Corasick matcher of the search terms, finds the matches of all terms in a single pass over
+    * the text
+    */
+   private static final class TermMatcher
+   {
+      private static final int[] NO_MATCHES = new int[0];
+
+      private final String[] terms;
+      // transitions of the terms trie, keyed by (state, char)
+      private final Map<Long, Integer> transitions = new HashMap<>();
+      // the term ending at each state, or -1
+      private final int[] termOf;
+      private final int[] fail;
+      // the next state of the fail chain ending a term, or 0
+      private final int[] output;
+
+      TermMatcher(String[] terms)
       {
-         TextLine line = lines[i];
-         String lineText = text.getText().substring(line.getStart(), line.getStart() + line.getLength());
+         this.terms = terms;
+         List<Integer> stateTerms = new ArrayList<>();
+         List<List<Integer>> stateChildren = new ArrayList<>();
+         List<Character> stateChars = new ArrayList<>();
+         stateTerms.add(-1);
+         stateChildren.add(new ArrayList<>());
+         stateChars.add('\0');
+         for (int t = 0; t < terms.length; t++)
+         {
+            int state = 0;
+            for (int i = 0; i < terms[t].length(); i++)
+            {
+               final char c = terms[t].charAt(i);
+               Integer next = transitions.get(key(state, c));
+               if (next == null)
+               {
+                  next = stateTerms.size();
+                  stateTerms.add(-1);
+                  stateChildren.add(new ArrayList<>());
+                  stateChars.add(c);
+                  stateChildren.get(state).add(next);
+                  transitions.put(key(state, c), next);
+               }
+               state = next;
+            }
+            stateTerms.set(state, t);
+         }
 
-         final String lineTextLow = lineText.toLowerCase();
-         final String queryLow = query.toLowerCase();
-         int beginIndex = lineTextLow.indexOf(queryLow);
-         if (beginIndex == -1)
+         final int stateCount = stateTerms.size();
+         termOf = new int[stateCount];
+         fail = new int[stateCount];
+         output = new int[stateCount];
+         for (int i = 0; i < stateCount; i++)
          {
-            continue;
+            termOf[i] = stateTerms.get(i);
+         }
+         // compute the fail links breadth first
+         ArrayDeque<Integer> queue = new ArrayDeque<>(stateChildren.get(0));
+         while (!queue.isEmpty())
+         {
+            final int state = queue.poll();
+            for (int child : stateChildren.get(state))
+            {
+               final int childFail = state == 0 ? 0 : next(fail[state], stateChars.get(child));
+               fail[child] = childFail;
+               output[child] = termOf[childFail] != -1 ? childFail : output[childFail];
+               queue.add(child);
+            }
+         }
+      }
+
+      private static long key(int state, char c)
+      {
+         return ((long) state << 16) | c;
+      }
+
+      private int next(int state, char c)
+      {
+         while (true)
+         {
+            final Integer next = transitions.get(key(state, c));
+            if (next != null)
+            {
+               return next;
+            }
+            if (state == 0)
+            {
+               return 0;
+            }
+            state = fail[state];
+         }
+      }
+
+      /**
+       * @return the matches as (term, start, end) triples, matches of the same term don't overlap
+       */
+      int[] match(String text)
+      {
+         int[] matches = NO_MATCHES;
+         int count = 0;
+         int[] lastEnds = null;
+         int state = 0;
+         for (int i = 0; i < text.length(); i++)
+         {
+            state = next(state, text.charAt(i));
+            int matchState = termOf[state] != -1 ? state : output[state];
+            while (matchState != 0)
+            {
+               final int term = termOf[matchState];
+               final int end = i + 1;
+               final int start = end - terms[term].length();
+               if (lastEnds == null)
+               {
+                  lastEnds = new int[terms.length];
+               }
+               if (start >= lastEnds[term])
+               {
+                  lastEnds[term] = end;
+                  if (count + 3 > matches.length)
+                  {
+                     matches = Arrays.copyOf(matches, Math.max(12, matches.length * 2));
+                  }
+                  matches[count++] = term;
+                  matches[count++] = start;
+                  matches[count++] = end;
+               }
+               matchState = output[matchState];
+            }
+         }
+         return count == matches.length ? matches : Arrays.copyOf(matches, count);
+      }
+   }
+
+   /**
+    * a match in a text node and its rectangles, one per line
+    */
+   private static final class Highlight
+   {
+      private final int start;
+      private final int end;
+      private final List<HighLightRectangle> rectangles = new ArrayList<>(1);
+
+      Highlight(int start, int end)
+      {
+         this.start = start;
+         this.end = end;
+      }
+
+      long getRange()
+      {
+         return range(start, end);
+      }
+
+      static long range(int start, int end)
+      {
+         return ((long) start << 32) | end;
+      }
+   }
+
+   /**
+    * text node of the index, its folded text is cached until the text changes
+    */
+   private final class TextEntry
+   {
+      private final Text text;
+      private String foldedText;
+      private boolean highlighted = false;
+      private final InvalidationListener textListener = observable ->
+      {
+         foldedText = null;
+         invalidate(getText());
+      };
+      private final InvalidationListener transformListener = observable -> invalidate(getText());
+      // texts that are hidden or out of the scene are not searched, thus must be searched again once shown
+      private final InvalidationListener visibilityListener = observable -> index.changed.add(getText());
+      // the text and its ancestors up to the highlighted parent, observed while highlighted
+      private final List<Node> observedNodes = new ArrayList<>();
+
+      TextEntry(Text text)
+      {
+         this.text = text;
+         text.textProperty().addListener(textListener);
+         text.visibleProperty().addListener(visibilityListener);
+         text.sceneProperty().addListener(visibilityListener);
+      }
+
+      Text getText()
+      {
+         return text;
+      }
+
+      String getFoldedText()
+      {
+         if (foldedText == null)
+         {
+            foldedText = text.getText() == null ? "" : fold(text.getText());
+         }
+         return foldedText;
+      }
+
+      /**
+       * the position of the text relative to the highlighted parent is only observed while the
+       * text is highlighted, moving the parent itself moves its highlights along
+       */
+      void setHighlighted(boolean highlighted)
+      {
+         if (this.highlighted == highlighted)
+         {
+            return;
+         }
+         this.highlighted = highlighted;
+         if (highlighted)
+         {
+            for (Node node = text; node != null && node != parent; node = node.getParent())
+            {
+               node.localToParentTransformProperty().addListener(transformListener);
+               // validate the transform so next changes are notified
+               node.getLocalToParentTransform();
+               observedNodes.add(node);
+            }
+         }
+         else
+         {
+            for (Node node : observedNodes)
+            {
+               node.localToParentTransformProperty().removeListener(transformListener);
+            }
+            observedNodes.clear();
+         }
+      }
+
+      void dispose()
+      {
+         setHighlighted(false);
+         text.textProperty().removeListener(textListener);
+         text.visibleProperty().removeListener(visibilityListener);
+         text.sceneProperty().removeListener(visibilityListener);
+      }
+   }
+
+   /**
+    * index of the text nodes of a parent, updated when nodes are added or removed
+    */
+   private final class TextIndex
+   {
+      private final Map<Text, TextEntry> entries = new LinkedHashMap<>();
+      private final Set<Parent> parents = new HashSet<>();
+      /**
+       * text nodes added or changed since the last query
+       */
+      private Set<Text> changed = new HashSet<>();
+      private final ListChangeListener<Node> childrenListener = change ->
+      {
+         while (change.next())
+         {
+            if (change.wasPermutated())
+            {
+               continue;
+            }
+            for (Node node : change.getRemoved())
+            {
+               unregister(node);
+            }
+            for (Node node : change.getAddedSubList())
+            {
+               register(node);
+            }
          }
+      };
 
-         RectBounds lineBounds = (line.getBounds());
+      TextIndex(Parent root)
+      {
+         register(root);
+      }
 
-         // compute Y layout
-         double height = Math.round(lineBounds.getMaxY()) - Math.round(lineBounds.getMinY());
-         double startY = height * i;
+      Set<Text> takeChanged()
+      {
+         Set<Text> result = changed;
+         changed = new HashSet<>();
+         return result;
+      }
 
-         // handle multiple matches in one line
-         while (beginIndex != -1)
+      private void register(Node node)
+      {
+         if (node instanceof HighLightRectangle)
          {
-            // compute X layout
-            Text temp = new Text(lineText.substring(beginIndex, beginIndex + queryLength));
-            temp.setFont(text.getFont());
-            temp.applyCss();
-            double width = temp.getLayoutBounds().getWidth();
-            temp.setText(lineText.substring(0, beginIndex + queryLength));
-            temp.applyCss();
-            double maxX = temp.getLayoutBounds().getMaxX();
-            double startX = maxX - width;
+            return;
+         }
+         if (node instanceof Text)
+         {
+            final Text text = (Text) node;
+            if (!entries.containsKey(text))
+            {
+               entries.put(text, new TextEntry(text));
+               changed.add(text);
+            }
+         }
+         else if (node instanceof Parent && parents.add((Parent) node))
+         {
+            final Parent parentNode = (Parent) node;
+            parentNode.getChildrenUnmodifiable().addListener(childrenListener);
+            for (Node child : parentNode.getChildrenUnmodifiable())
+            {
+               register(child);
+            }
+         }
+      }
 
-            rectBounds.add(new BoundingBox(textBounds.getMinX() + startX, textBounds.getMinY() + startY, width, temp.getLayoutBounds().getHeight()));
+      private void unregister(Node node)
+      {
+         if (node instanceof Text)
+         {
+            final TextEntry entry = entries.get(node);
+            if (entry != null)
+            {
+               invalidate((Text) node);
+               entries.remove(node);
+               changed.remove(node);
+               entry.dispose();
+            }
+         }
+         else if (node instanceof Parent && parents.remove(node))
+         {
+            final Parent parentNode = (Parent) node;
+            parentNode.getChildrenUnmodifiable().removeListener(childrenListener);
+            for (Node child : parentNode.getChildrenUnmodifiable())
+            {
+               unregister(child);
+            }
+         }
+      }
 
-            beginIndex = lineTextLow.indexOf(queryLow, beginIndex + queryLength);
+      void dispose()
+      {
+         for (Parent parentNode : parents)
+         {
+            parentNode.getChildrenUnmodifiable().removeListener(childrenListener);
+         }
+         for (TextEntry entry : entries.values())
+         {
+            entry.dispose();
          }
+         parents.clear();
+         entries.clear();
       }
+   }
+
+   private ObservableList<Node> getParentChildren(Parent parent)
+   {
+      try
+      {
+         return (ObservableList<Node>) parentChildrenField.get(parent);
+      }
+      catch (IllegalAccessException e)
+      {
+         e.printStackTrace();
+      }
+      return null;
+   }
 
+   /**
+    * @return the bounds of the specified range of the text in the parent, one per line
+    */
+   private List<Bounds> getMatchingBounds(Text text, int start, int end)
+   {
+      List<Bounds> rectBounds = new ArrayList<>();
+      double minX = Double.MAX_VALUE;
+      double minY = Double.MAX_VALUE;
+      double maxX = -Double.MAX_VALUE;
+      double maxY = -Double.MAX_VALUE;
+      // the range shape is made of a closed rectangle for each line
+      for (PathElement element : text.rangeShape(start, end))
+      {
+         double x;
+         double y;
+         if (element instanceof MoveTo)
+         {
+            addBounds(rectBounds, text, minX, minY, maxX, maxY);
+            minX = minY = Double.MAX_VALUE;
+            maxX = maxY = -Double.MAX_VALUE;
+            x = ((MoveTo) element).getX();
+            y = ((MoveTo) element).getY();
+         }
+         else if (element instanceof LineTo)
+         {
+            x = ((LineTo) element).getX();
+            y = ((LineTo) element).getY();
+         }
+         else
+         {
+            continue;
+         }
+         minX = Math.min(minX, x);
+         minY = Math.min(minY, y);
+         maxX = Math.max(maxX, x);
+         maxY = Math.max(maxY, y);
+      }
+      addBounds(rectBounds, text, minX, minY, maxX, maxY);
       return rectBounds;
    }
 
+   private void addBounds(List<Bounds> rectBounds, Text text, double minX, double minY, double maxX, double maxY)
+   {
+      if (maxX > minX && maxY > minY)
+      {
+         // find local text bounds in parent
+         rectBounds.add(parent.sceneToLocal(text.localToScene(new BoundingBox(minX, minY, maxX - minX, maxY - minY))));
+      }
+   }
+
    /**
     * clear highlights
     */
-   public synchronized void clear()
+   public void clear()
    {
-      List<Rectangle> flatBoxes = new ArrayList<>();
-      final Collection<List<Rectangle>> boxesCollection = boxes.values();
-      for (List<Rectangle> box : boxesCollection)
+      searchGeneration.incrementAndGet();
+      JFXUtilities.runInFXAndWait(() ->
       {
-         flatBoxes.addAll(box);
-      }
-      boxes.clear();
-      if (parent != null)
-         JFXUtilities.runInFXAndWait(() -> getParentChildren(parent).removeAll(flatBoxes));
+         clearHighlights();
+         releasePool();
+      });
    }
 
    public Paint getPaint()
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.jfoenix.controls;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.jfoenix.controls.JFXMasonryPane.LayoutMode;
+
+import javafx.geometry.BoundingBox;
+import javafx.scene.layout.Region;
+
+public class JFXMasonryPaneTest
+{
+   private static final double CELL_SIZE = 70;
+   private static final double SPACING = 5;
+   // sizes of blocks spanning one and two cells
+   private static final double ONE = CELL_SIZE;
+   private static final double TWO = 2 * CELL_SIZE + SPACING;
+
+   @Test
+   public void testMasonrySingleSpanBlocksFillRows()
+   {
+      assertEquals(Arrays.asList(box(0, 0, 1, 1), box(0, 1, 1, 1), box(0, 2, 1, 1), box(1, 0, 1, 1), box(1, 1, 1, 1)),
+                   place(LayoutMode.MASONRY, Integer.MAX_VALUE, 3, blocks(5, ONE, ONE)));
+   }
+
+   @Test
+   public void testMasonryMultiSpanBlocksAreStackedPerColumn()
+   {
+      final List<Region> blocks = Arrays.asList(block(TWO, ONE), block(ONE, TWO), block(TWO, ONE), block(ONE, ONE));
+      assertEquals(Arrays.asList(box(0, 0, 2, 1), box(0, 2, 1, 2), box(1, 0, 2, 1), box(0, 3, 1, 1)),
+                   place(LayoutMode.MASONRY, Integer.MAX_VALUE, 4, blocks));
+   }
+
+   @Test
+   public void testMasonryDoesNotFillGapsBelowTheColumns()
+   {
+      // the gap left below the first block when the third one is stacked under the second is not used
+      final List<Region> blocks = Arrays.asList(block(ONE, ONE), block(ONE, TWO), block(TWO, ONE), block(ONE, ONE), block(ONE, ONE));
+      assertEquals(Arrays.asList(box(0, 0, 1, 1), box(0, 1, 1, 2), box(2, 0, 2, 1), box(0, 2, 1, 1), box(1, 2, 1, 1)),
+                   place(LayoutMode.MASONRY, Integer.MAX_VALUE, 3, blocks));
+   }
+
+   @Test
+   public void testBinPackingSingleSpanBlocksFillRows()
+   {
+      assertEquals(Arrays.asList(box(0, 0, 1, 1), box(0, 1, 1, 1), box(0, 2, 1, 1), box(1, 0, 1, 1), box(1, 1, 1, 1)),
+                   place(LayoutMode.BIN_PACKING, Integer.MAX_VALUE, 3, blocks(5, ONE, ONE)));
+   }
+
+   @Test
+   public void testBinPackingFillsGaps()
+   {
+      final List<Region> blocks = Arrays.asList(block(ONE, ONE), block(ONE, TWO), block(TWO, ONE), block(ONE, ONE), block(ONE, ONE));
+      assertEquals(Arrays.asList(box(0, 0, 1, 1), box(0, 1, 1, 2), box(2, 0, 2, 1), box(0, 2, 1, 1), box(1, 0, 1, 1)),
+                   place(LayoutMode.BIN_PACKING, Integer.MAX_VALUE, 3, blocks));
+   }
+
+   @Test
+   public void testBlocksBeyondTheRowLimitAreNotPlaced()
+   {
+      for (LayoutMode mode : Arrays.asList(LayoutMode.MASONRY, LayoutMode.BIN_PACKING))
+      {
+         final List<BoundingBox> boxes = place(mode, 2, 2, blocks(5, ONE, ONE));
+         assertEquals(Arrays.asList(box(0, 0, 1, 1), box(0, 1, 1, 1), box(1, 0, 1, 1), box(1, 1, 1, 1), null), boxes);
+
+         // a block taller than the grid never fits
+         assertNull(place(mode, 2, 2, Arrays.asList(block(ONE, 3 * CELL_SIZE + 2 * SPACING))).get(0));
+      }
+   }
+
+   @Test
+   public void testAppendedBlocksArePlacedAsIfPlacedTogether()
+   {
+      for (LayoutMode mode : Arrays.asList(LayoutMode.MASONRY, LayoutMode.BIN_PACKING))
+      {
+         final List<Region> blocks = Arrays.asList(block(ONE, ONE), block(ONE, TWO), block(TWO, ONE), block(ONE, ONE), block(TWO, TWO), block(ONE, ONE));
+         final List<BoundingBox> expected = place(mode, Integer.MAX_VALUE, 3, blocks);
+
+         final LayoutMode.Placement placement = mode.createPlacement(Integer.MAX_VALUE, 3);
+         final List<BoundingBox> boxes = place(placement, blocks.subList(0, 3));
+         boxes.addAll(place(placement, blocks.subList(3, blocks.size())));
+         assertEquals(expected, boxes);
+      }
+   }
+
+   @Test
+   public void testLayoutPositionsChildrenOnTheGrid()
+   {
+      final JFXMasonryPane pane = new JFXMasonryPane();
+      pane.setCellWidth(CELL_SIZE);
+      pane.setCellHeight(CELL_SIZE);
+      pane.setHSpacing(SPACING);
+      pane.setVSpacing(SPACING);
+      final List<Region> blocks = Arrays.asList(block(ONE, ONE), block(TWO, ONE), block(ONE, ONE), block(TWO, ONE));
+      pane.getChildren().addAll(blocks);
+      // room for 4 columns
+      pane.resize(4 * (CELL_SIZE + SPACING), 600);
+      pane.layout();
+
+      assertEquals(0, blocks.get(0).getLayoutX());
+      assertEquals(CELL_SIZE + SPACING, blocks.get(1).getLayoutX());
+      assertEquals(TWO, blocks.get(1).getWidth());
+      assertEquals(3 * (CELL_SIZE + SPACING), blocks.get(2).getLayoutX());
+      assertEquals(0, blocks.get(3).getLayoutX());
+      assertEquals(CELL_SIZE + SPACING, blocks.get(3).getLayoutY());
+   }
+
+   private static List<BoundingBox> place(LayoutMode mode, int limitRow, int limitCol, List<Region> blocks)
+   {
+      return place(mode.createPlacement(limitRow, limitCol), blocks);
+   }
+
+   private static List<BoundingBox> place(LayoutMode.Placement placement, List<Region> blocks)
+   {
+      final List<BoundingBox> boxes = new ArrayList<>();
+      for (Region block : blocks)
+      {
+         boxes.add(placement.place(block, CELL_SIZE, CELL_SIZE, SPACING, SPACING));
+      }
+      return boxes;
+   }
+
+   /**
+    * @return the box of a block, as (row, column, columns, rows)
+    */
+   private static BoundingBox box(int row, int column, int columns, int rows)
+   {
+      return new BoundingBox(row, column, columns, rows);
+   }
+
+   private static List<Region> blocks(int count, double width, double height)
+   {
+      final List<Region> blocks = new ArrayList<>();
+      for (int i = 0; i < count; i++)
+      {
+         blocks.add(block(width, height));
+      }
+      return blocks;
+   }
+
+   private static Region block(double width, double height)
+   {
+      final Region block = new Region();
+      block.setPrefSize(width, height);
+      return block;
+   }
+}
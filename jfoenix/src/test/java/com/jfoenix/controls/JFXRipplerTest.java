@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.jfoenix.controls;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import javafx.event.Event;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Region;
+
+public class JFXRipplerTest
+{
+   private static final int RIPPLERS = 1000;
+
+   @Test
+   public void testRippleNodesAreCreatedOnFirstHover()
+   {
+      final Region control = new Region();
+      final JFXRippler rippler = new JFXRippler(control);
+      assertEquals(1, rippler.getChildren().size());
+
+      Event.fireEvent(control, new MouseEvent(MouseEvent.MOUSE_ENTERED, 0, 0, 0, 0, MouseButton.NONE, 0,
+                                              false, false, false, false, false, false, false, false, false, false, null));
+      assertEquals(2, rippler.getChildren().size());
+      assertEquals(control, rippler.getChildren().get(0));
+   }
+
+   @Test
+   public void testUnusedRipplersAllocateLess()
+   {
+      // warm up so class loading and lazy initialization are not counted
+      createRipplers(RIPPLERS, true);
+
+      long allocatedBefore = getAllocatedBytes();
+      final List<JFXRippler> lazy = createRipplers(RIPPLERS, false);
+      final long lazyAllocated = getAllocatedBytes() - allocatedBefore;
+
+      allocatedBefore = getAllocatedBytes();
+      final List<JFXRippler> eager = createRipplers(RIPPLERS, true);
+      final long eagerAllocated = getAllocatedBytes() - allocatedBefore;
+
+      // the ripplers are kept so their allocations can't be optimized away
+      assertEquals(RIPPLERS, lazy.size());
+      assertEquals(RIPPLERS, eager.size());
+      assertTrue(lazyAllocated < eagerAllocated,
+                 "unused ripplers allocated " + lazyAllocated + " bytes, ripplers with ripple nodes " + eagerAllocated + " bytes");
+   }
+
+   private static List<JFXRippler> createRipplers(int count, boolean createRippleUI)
+   {
+      final List<JFXRippler> ripplers = new ArrayList<>(count);
+      for (int i = 0; i < count; i++)
+      {
+         final JFXRippler rippler = new JFXRippler(new Region());
+         if (createRippleUI)
+         {
+            rippler.createRippleUI();
+         }
+         ripplers.add(rippler);
+      }
+      return ripplers;
+   }
+
+   private static long getAllocatedBytes()
+   {
+      com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+      return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+   }
+}
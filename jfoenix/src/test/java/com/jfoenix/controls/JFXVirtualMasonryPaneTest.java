@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.jfoenix.controls;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.layout.StackPane;
+
+public class JFXVirtualMasonryPaneTest
+{
+   private static final int ITEMS = 300;
+   private static final double CELL_SIZE = 70;
+   private static final double WIDTH = 400;
+   private static final double HEIGHT = 300;
+
+   private static boolean toolkitStarted;
+
+   @BeforeAll
+   public static void startToolkit() throws InterruptedException
+   {
+      final CountDownLatch latch = new CountDownLatch(1);
+      try
+      {
+         Platform.startup(latch::countDown);
+         toolkitStarted = latch.await(10, TimeUnit.SECONDS);
+      }
+      catch (IllegalStateException e)
+      {
+         // already started by another test
+         toolkitStarted = true;
+      }
+      catch (RuntimeException | Error e)
+      {
+         // no display available
+         toolkitStarted = false;
+      }
+      if (toolkitStarted)
+      {
+         Platform.setImplicitExit(false);
+      }
+   }
+
+   @Test
+   public void testCellsAreOnlyCreatedInsideTheViewport() throws Throwable
+   {
+      runInFX(() ->
+      {
+         final JFXVirtualMasonryPane<String> pane = createPane(ITEMS);
+         final ScrollPane scrollPane = createScrollPane(pane);
+         layout(scrollPane);
+
+         final List<JFXMasonryCell<?>> shownCells = getShownCells(pane);
+         assertFalse(shownCells.isEmpty());
+         for (JFXMasonryCell<?> cell : shownCells)
+         {
+            assertTrue(cell.getIndex() < ITEMS / 4, "cell created outside of the viewport: " + cell.getIndex());
+         }
+         assertTrue(getCells(pane).size() < ITEMS / 4);
+      });
+   }
+
+   @Test
+   public void testCellsFollowTheViewportSize() throws Throwable
+   {
+      runInFX(() ->
+      {
+         final JFXVirtualMasonryPane<String> pane = createPane(ITEMS);
+         final ScrollPane scrollPane = createScrollPane(pane);
+         layout(scrollPane);
+         final int shownCount = getShownCells(pane).size();
+
+         scrollPane.resize(WIDTH, 2 * HEIGHT);
+         layout(scrollPane);
+         assertTrue(getShownCells(pane).size() > shownCount);
+      });
+   }
+
+   @Test
+   public void testCellsAreCreatedForAllItemsOutsideOfAScrollPane() throws Throwable
+   {
+      runInFX(() ->
+      {
+         final JFXVirtualMasonryPane<String> pane = createPane(12);
+         final StackPane root = new StackPane(pane);
+         new Scene(root, WIDTH, 2 * HEIGHT);
+         root.resize(WIDTH, 2 * HEIGHT);
+         layout(root);
+
+         assertEquals(12, getShownCells(pane).size());
+      });
+   }
+
+   @Test
+   public void testCellsAreRecycledWhenScrolling() throws Throwable
+   {
+      runInFX(() ->
+      {
+         final JFXVirtualMasonryPane<String> pane = createPane(ITEMS);
+         final ScrollPane scrollPane = createScrollPane(pane);
+         layout(scrollPane);
+         final Set<Node> shownCells = Collections.newSetFromMap(new IdentityHashMap<>());
+         shownCells.addAll(getShownCells(pane));
+         final int cellCount = getCells(pane).size();
+
+         scrollPane.setVvalue(1);
+         layout(scrollPane);
+
+         final List<JFXMasonryCell<?>> scrolledCells = getShownCells(pane);
+         assertFalse(scrolledCells.isEmpty());
+         boolean reused = false;
+         for (JFXMasonryCell<?> cell : scrolledCells)
+         {
+            assertTrue(cell.getIndex() >= ITEMS / 2, "cell created outside of the viewport: " + cell.getIndex());
+            reused |= shownCells.contains(cell);
+         }
+         assertTrue(reused, "no cell was recycled");
+         assertTrue(getCells(pane).size() < 2 * cellCount);
+      });
+   }
+
+   private static JFXVirtualMasonryPane<String> createPane(int count)
+   {
+      final ObservableList<String> items = FXCollections.observableArrayList();
+      for (int i = 0; i < count; i++)
+      {
+         items.add("item " + i);
+      }
+      final JFXVirtualMasonryPane<String> pane = new JFXVirtualMasonryPane<>(items);
+      pane.setCellFactory(masonryPane ->
+      {
+         final JFXMasonryCell<String> cell = new JFXMasonryCell<>();
+         cell.setPrefSize(CELL_SIZE, CELL_SIZE);
+         return cell;
+      });
+      return pane;
+   }
+
+   private static ScrollPane createScrollPane(JFXVirtualMasonryPane<String> pane)
+   {
+      final ScrollPane scrollPane = new ScrollPane(pane);
+      scrollPane.setFitToWidth(true);
+      new Scene(scrollPane, WIDTH, HEIGHT);
+      scrollPane.resize(WIDTH, HEIGHT);
+      return scrollPane;
+   }
+
+   private static void layout(Parent root)
+   {
+      // the pane height is only known once its items are placed
+      for (int i = 0; i < 3; i++)
+      {
+         root.applyCss();
+         root.layout();
+      }
+   }
+
+   private static List<JFXMasonryCell<?>> getCells(JFXVirtualMasonryPane<?> pane)
+   {
+      final List<JFXMasonryCell<?>> cells = new ArrayList<>();
+      for (Node child : pane.getChildren())
+      {
+         if (child instanceof JFXMasonryCell)
+         {
+            cells.add((JFXMasonryCell<?>) child);
+         }
+      }
+      return cells;
+   }
+
+   private static List<JFXMasonryCell<?>> getShownCells(JFXVirtualMasonryPane<?> pane)
+   {
+      final List<JFXMasonryCell<?>> cells = getCells(pane);
+      cells.removeIf(cell -> !cell.isVisible() || cell.getIndex() < 0);
+      return cells;
+   }
+
+   private static void runInFX(Runnable test) throws Throwable
+   {
+      Assumptions.assumeTrue(toolkitStarted, "the JavaFX toolkit can't be started");
+      final CountDownLatch latch = new CountDownLatch(1);
+      final AtomicReference<Throwable> failure = new AtomicReference<>();
+      Platform.runLater(() ->
+      {
+         try
+         {
+            test.run();
+         }
+         catch (Throwable e)
+         {
+            failure.set(e);
+         }
+         finally
+         {
+            latch.countDown();
+         }
+      });
+      assertTrue(latch.await(30, TimeUnit.SECONDS), "the test timed out");
+      if (failure.get() != null)
+      {
+         throw failure.get();
+      }
+   }
+}
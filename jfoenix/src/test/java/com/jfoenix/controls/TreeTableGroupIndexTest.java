@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.jfoenix.controls;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.jfoenix.controls.datamodels.treetable.RecursiveTreeObject;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeTableColumn;
+
+public class TreeTableGroupIndexTest
+{
+   private final TreeTableColumn<Item, String> groupColumn = new TreeTableColumn<>("Group");
+   private final TreeTableColumn<Item, String> kindColumn = new TreeTableColumn<>("Kind");
+   private ObservableList<Item> items;
+   private RecursiveTreeItem<Item> source;
+
+   @BeforeEach
+   public void setUp()
+   {
+      items = FXCollections.observableArrayList(new Item("a", "x"), new Item("b", "x"), new Item("a", "y"), new Item("c", "x"));
+      source = new RecursiveTreeItem<>(items, RecursiveTreeObject::getChildren);
+   }
+
+   @Test
+   public void testLeavesAreGroupedByKey()
+   {
+      final TreeTableGroupIndex<Item> index = createIndex(groupColumn, kindColumn);
+
+      assertEquals(Arrays.asList("a", "b", "c"), groupKeys(index.getRoot()));
+      final TreeItem<?> groupA = group(index.getRoot(), "a");
+      assertEquals(Arrays.asList("x", "y"), groupKeys(groupA));
+      assertEquals(Collections.singletonList(items.get(0)), leaves(group(groupA, "x")));
+      assertEquals(Collections.singletonList(items.get(2)), leaves(group(groupA, "y")));
+   }
+
+   @Test
+   public void testAddedLeavesAreGroupedWithoutReplacingGroups()
+   {
+      final TreeTableGroupIndex<Item> index = createIndex(groupColumn);
+      final TreeItem<?> groupA = group(index.getRoot(), "a");
+
+      final Item added = new Item("a", "z");
+      items.addAll(added, new Item("d", "x"));
+
+      assertEquals(Arrays.asList("a", "b", "c", "d"), groupKeys(index.getRoot()));
+      assertSame(groupA, group(index.getRoot(), "a"));
+      assertEquals(Arrays.asList(items.get(0), items.get(2), added), leaves(groupA));
+   }
+
+   @Test
+   public void testRemovingTheLastLeafOfAGroupDestroysIt()
+   {
+      final TreeTableGroupIndex<Item> index = createIndex(groupColumn, kindColumn);
+
+      items.remove(1);
+      assertEquals(Arrays.asList("a", "c"), groupKeys(index.getRoot()));
+      items.remove(1);
+      assertEquals(Collections.singletonList("x"), groupKeys(group(index.getRoot(), "a")));
+
+      // the parent group is destroyed with its last sub group
+      items.remove(0);
+      assertEquals(Collections.singletonList("c"), groupKeys(index.getRoot()));
+   }
+
+   @Test
+   public void testRekeyedLeavesMoveOnRefresh()
+   {
+      final TreeTableGroupIndex<Item> index = createIndex(groupColumn);
+      final TreeItem<?> groupA = group(index.getRoot(), "a");
+
+      items.get(1).group = "a";
+      items.get(3).group = "d";
+      index.refresh();
+
+      assertEquals(Arrays.asList("a", "d"), groupKeys(index.getRoot()));
+      assertSame(groupA, group(index.getRoot(), "a"));
+      assertEquals(Arrays.asList(items.get(0), items.get(2), items.get(1)), leaves(groupA));
+      assertEquals(Collections.singletonList(items.get(3)), leaves(group(index.getRoot(), "d")));
+   }
+
+   @Test
+   public void testExpansionStateSurvivesFilterChange()
+   {
+      final TreeTableGroupIndex<Item> index = createIndex(groupColumn);
+      final TreeItem<?> groupA = group(index.getRoot(), "a");
+      groupA.setExpanded(true);
+
+      // as applied by RecursiveTreeItem once a filter is computed
+      source.filteredItems.setPredicate(leaf -> "x".equals(leaf.getValue().kind));
+      assertEquals(Arrays.asList("a", "b", "c"), groupKeys(index.getRoot()));
+      assertSame(groupA, group(index.getRoot(), "a"));
+      assertTrue(groupA.isExpanded());
+      assertEquals(Collections.singletonList(items.get(0)), leaves(groupA));
+
+      source.filteredItems.setPredicate(leaf -> true);
+      assertSame(groupA, group(index.getRoot(), "a"));
+      assertTrue(groupA.isExpanded());
+      assertEquals(Arrays.asList(items.get(0), items.get(2)), leaves(groupA));
+   }
+
+   @Test
+   public void testDisposeGivesTheLeavesBack()
+   {
+      final TreeTableGroupIndex<Item> index = createIndex(groupColumn);
+      source.getChildren().clear();
+      index.dispose();
+
+      assertEquals(items, leaves(source));
+      // the index no longer follows the source
+      items.add(new Item("d", "x"));
+      assertEquals(Arrays.asList("a", "b", "c"), groupKeys(index.getRoot()));
+   }
+
+   @SafeVarargs
+   private final TreeTableGroupIndex<Item> createIndex(TreeTableColumn<Item, ?>... columns)
+   {
+      // the keys are read from the items, cell data requires the columns to be in a tree table view
+      return new TreeTableGroupIndex<>(null,
+                                       source,
+                                       Arrays.asList(columns),
+                                       (column, leaf) -> column == groupColumn ? leaf.getValue().group : leaf.getValue().kind,
+                                       Runnable::run);
+   }
+
+   // group tree items hold plain RecursiveTreeObjects, so they are not read as items
+   private static List<Object> groupKeys(TreeItem<?> parent)
+   {
+      final List<Object> keys = new ArrayList<>();
+      for (TreeItem<?> group : parent.getChildren())
+      {
+         keys.add(((RecursiveTreeObject<?>) group.getValue()).getGroupedValue());
+      }
+      return keys;
+   }
+
+   private static TreeItem<?> group(TreeItem<?> parent, Object key)
+   {
+      for (TreeItem<?> group : parent.getChildren())
+      {
+         if (key.equals(((RecursiveTreeObject<?>) group.getValue()).getGroupedValue()))
+         {
+            return group;
+         }
+      }
+      throw new AssertionError("no group " + key);
+   }
+
+   private static List<Object> leaves(TreeItem<?> group)
+   {
+      final List<Object> leaves = new ArrayList<>();
+      for (TreeItem<?> leaf : group.getChildren())
+      {
+         leaves.add(leaf.getValue());
+      }
+      return leaves;
+   }
+
+   private static final class Item extends RecursiveTreeObject<Item>
+   {
+      private String group;
+      private final String kind;
+
+      Item(String group, String kind)
+      {
+         this.group = group;
+         this.kind = kind;
+      }
+   }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.jfoenix.svg;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+public class SVGGlyphAtlasTest
+{
+   // larger than a default page, so each page holds a single slot
+   private static final int LARGE_GLYPH_SIZE = 600;
+   // (600 + 2 padding) rounded up to the slot step
+   private static final long LARGE_PAGE_MEMORY = 608L * 608 * 4;
+
+   @Test
+   public void testEvictingFromFullSingleSlotPageReusesThePage()
+   {
+      final SVGGlyphAtlas atlas = new SVGGlyphAtlas(LARGE_PAGE_MEMORY);
+      atlas.store("first", 24, Color.BLACK, 1, new WritableImage(LARGE_GLYPH_SIZE, LARGE_GLYPH_SIZE));
+      assertEquals(1, atlas.getPageCount());
+      assertEquals(LARGE_PAGE_MEMORY, atlas.getMemoryUsage());
+
+      // no room for a second page, the first glyph is evicted and its page reused
+      atlas.store("second", 24, Color.BLACK, 1, new WritableImage(LARGE_GLYPH_SIZE, LARGE_GLYPH_SIZE));
+      assertEquals(1, atlas.size());
+      assertEquals(1, atlas.getPageCount());
+      assertEquals(LARGE_PAGE_MEMORY, atlas.getMemoryUsage());
+
+      atlas.invalidate("second");
+      assertEquals(0, atlas.size());
+      assertEquals(0, atlas.getPageCount());
+      assertEquals(0, atlas.getMemoryUsage());
+   }
+
+   @Test
+   public void testSmallGlyphsShareAPage()
+   {
+      final SVGGlyphAtlas atlas = new SVGGlyphAtlas();
+      atlas.store("first", 24, Color.BLACK, 1, new WritableImage(24, 24));
+      atlas.store("second", 24, Color.BLACK, 1, new WritableImage(24, 24));
+      assertEquals(2, atlas.size());
+      assertEquals(1, atlas.getPageCount());
+
+      atlas.invalidate("first");
+      assertEquals(1, atlas.getPageCount());
+      atlas.clear();
+      assertEquals(0, atlas.getPageCount());
+      assertEquals(0, atlas.getMemoryUsage());
+   }
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.jfoenix.transitions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import javafx.animation.Interpolator;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.util.Duration;
+
+public class JFXAnimationTimerTest
+{
+   private static final int PULSES = 10_000;
+   // a single allocation per pulse would exceed this by far
+   private static final long MAX_ALLOCATED_BYTES = 1024;
+
+   @Test
+   public void testDoubleTargetsAreAnimatedWithoutAllocation()
+   {
+      final DoubleProperty first = new SimpleDoubleProperty(0);
+      final DoubleProperty second = new SimpleDoubleProperty(100);
+      final Set<JFXKeyValue<?>> keyValues = new HashSet<>();
+      keyValues.add(JFXKeyValue.builder().setTarget(first).setEndValue(100.0).setInterpolator(Interpolator.LINEAR).build());
+      keyValues.add(JFXKeyValue.builder().setTarget(second).setEndValue(0.0).setInterpolator(Interpolator.EASE_BOTH).build());
+
+      // long enough to never finish while pulsed
+      final double duration = PULSES * 2.0;
+      final JFXAnimationTimer.AnimationHandler handler = new JFXAnimationTimer.AnimationHandler(Duration.millis(duration), null, keyValues);
+      handler.init();
+
+      // warm up so class loading and lazy initialization are not counted
+      for (int i = 0; i < PULSES; i++)
+      {
+         handler.animate(i * 0.1);
+      }
+
+      final long allocatedBefore = getAllocatedBytes();
+      for (int i = 0; i < PULSES; i++)
+      {
+         handler.animate(i);
+      }
+      final long allocated = getAllocatedBytes() - allocatedBefore;
+
+      assertTrue(allocated < MAX_ALLOCATED_BYTES, "animating double targets allocated " + allocated + " bytes over " + PULSES + " pulses");
+      assertEquals((PULSES - 1) / duration * 100.0, first.get(), 1e-9);
+   }
+
+   private static long getAllocatedBytes()
+   {
+      com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+      return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+   }
+}